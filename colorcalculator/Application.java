@@ -1,22 +1,61 @@
 //Application to build/connect components in the colorCalculator package
 //http://www.cs.cmu.edu/~pattis/15-1XX/common/classes/edu/cmu/cs/pattis/cs151xx/
 //https://www.cs.cmu.edu/~pattis/15-1XX/15-200/lectures/modelinmvc/index.html
+//
+//If the system property colorCalculator.journal names a directory, the
+//  model's changes are journaled there, and the last session is replayed
+//  (so it starts where the last one ended, with its undo history)
+//
+//Given the arguments -server [port], it runs no GUI: it serves the
+//  calculator over HTTP on the loopback address (see ColorServer)
 
 
 import colorCalculator.Model;
 import colorCalculator.View;
 import colorCalculator.Controller;
+import colorCalculator.ColorServer;
+import colorCalculator.Journal;
+import java.io.File;
+import java.io.IOException;
 //import colorCalculator.*;
 
 public class Application
 {
 	public static void main(String[] args)
+	  throws IOException
 	{
+	  if (args.length > 0 && args[0].equals("-server")) {
+	    int port = 8080;
+	    if (args.length > 1) {
+	      try {
+	        port = Integer.parseInt(args[1]);
+	      } catch (NumberFormatException e) {
+	        port = -1;
+	      }
+	      if (port < 0 || port > 65535) {
+	        System.err.println("Usage: java Application -server [port]   (port in [0,65535])");
+	        return;
+	      }
+	    }
+	    ColorServer server = new ColorServer(port);
+	    server.start();
+	    System.out.println("Serving on http://localhost:" + server.getPort() + "/session/");
+	    return;
+	  }
+
     //Construct all the components
 	  Model      model      = new Model();
 	  Controller controller = new Controller();
 	  View       view       = new View();
 	  
+	  String journalDirectory = System.getProperty("colorCalculator.journal");
+	  if (journalDirectory != null) {
+	    final Journal journal = new Journal(new File(journalDirectory), "colors", 1 << 24);
+	    model.replay(journal);
+	    model.setJournal(journal);
+	    Runtime.getRuntime().addShutdownHook(new Thread() {public void run() {journal.close();}});
+	  }
+	  
 	  //Notify each component of the other components it needs
 	  model.addView(view);
 	  controller.addModel(model);
@@ -0,0 +1,308 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : benchmark.Benchmarks
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   Benchmarks is a driver that measures the hot paths of this project:
+// ModularCounter.update (for small to huge deltas), ColorModel's
+// changeColorViaTextField (on valid and invalid input), getHex, a change
+// telling a listener that marks an UpdateScheduler dirty (as the View's
+// does; the rendering itself needs a display, so it is not measured),
+// Prompt.forInt parsing from a piped stream, and ImagePipeline streaming
+// an image with alpha into a TIFF (its input is written once, before the
+// timing; ImagePipeline.main checks the result's pixels).
+//
+//   For each benchmark it runs warmup rounds (so the JIT compiles the
+// code), then timed rounds, and reports the throughput (operations per
+// second) and the bytes allocated per operation (measured by the JVM for
+// the running thread), so regressions in either show up before an
+// upgrade. Every result is folded into a "sink" that is printed, so the
+// JIT cannot discard the work being measured.
+//
+//   Usage: java benchmark.Benchmarks [name-prefix ...]
+//     runs the benchmarks whose names start with any prefix (all if none)
+//   System properties: bench.warmups, bench.rounds, bench.millis
+//     (rounds before measuring, measured rounds, milliseconds per round)
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: Prompt benchmark uses Prompt.setInput and quiet mode
+//  10/16/26: ImagePipeline (ARGB -> TIFF) benchmark and check
+//  10/16/26: ImagePipeline benchmark times only process (check moved to
+//            ImagePipeline.main), into temporary files
+//  10/16/26: "View.update(headless)" renamed for what it measures
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package benchmark;
+
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+
+import javax.imageio.ImageIO;
+
+import colorCalculator.ColorModel;
+import colorCalculator.ImageAdjuster;
+import colorCalculator.ImagePipeline;
+import colorCalculator.ModelListener;
+import colorCalculator.UpdateScheduler;
+import com.ivanaranda.ModularCounter;
+import com.ivanaranda.Prompt;
+
+
+public class Benchmarks
+{
+
+  //Each benchmark performs its operation n times, returning a value that
+  //  depends on every operation
+  private static abstract class Benchmark
+  {
+    Benchmark(String name)
+    {this.name = name;}
+
+    abstract long run(int n);
+
+    final String name;
+  }
+
+
+
+  public static void main(String[] args)
+  {
+    //Prompt reads a piped stream (quietly: no prompts printed)
+    Prompt.setInput(new RepeatingInput("12345\n"));
+
+    Benchmark[] all = {
+      counterUpdate(1),
+      counterUpdate(1_000),
+      counterUpdate(1_000_000),
+
+      new Benchmark("ColorModel.changeColorViaTextField(valid)") {
+        long run(int n) {
+          ColorModel m = new ColorModel();
+          for (int i=0; i<n; i++)
+            m.changeColorViaTextField("Green", VALID[i & 3]);
+          return m.getState();
+        }},
+
+      new Benchmark("ColorModel.changeColorViaTextField(invalid)") {
+        long run(int n) {
+          ColorModel m = new ColorModel();
+          for (int i=0; i<n; i++)
+            m.changeColorViaTextField("Green", INVALID[i & 3]);
+          return m.getState();
+        }},
+
+      new Benchmark("ColorModel.getHex") {
+        long run(int n) {
+          ColorModel m = new ColorModel();
+          m.changeColorViaHex("#1E90FF");
+          long sink = 0;
+          for (int i=0; i<n; i++)
+            sink += m.getHex().charAt(i % 6);
+          return sink;
+        }},
+
+      new Benchmark("ColorModel.changeColorViaButton(->UpdateScheduler)") {
+        long run(int n) {
+          final long[] renders = new long[1];
+          final UpdateScheduler scheduler = new UpdateScheduler(new Runnable() {
+            public void run() {renders[0]++;}}, 16);
+          ColorModel m = new ColorModel();
+          m.changeColorViaHex("#000000");
+          m.addListener(new ModelListener() {
+            public void update() {scheduler.markDirty();}});
+          for (int i=0; i<n; i++)
+            m.changeColorViaButton("Blue", (i & 1) == 0 ? +10 : -10);
+          return m.getState() + renders[0];
+        }},
+
+      new Benchmark("Prompt.forInt(piped)") {
+        long run(int n) {
+          Prompt.setQuiet(true);
+          try {
+            long sink = 0;
+            for (int i=0; i<n; i++)
+              sink += Prompt.forInt("Enter int");
+            return sink;
+          } finally {
+            Prompt.setQuiet(false);
+          }
+        }},
+
+      new Benchmark("ImagePipeline.process(ARGB->TIFF)") {
+        long run(int n) {
+          try {
+            if (in == null) {
+              in  = argbImage();
+              out = temporary(".tif");
+            }
+            for (int i=0; i<n; i++)
+              ImagePipeline.process(in, out, ADD_RED);
+            return out.length();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+        File in, out;        //Made once, on the first run
+      },
+    };
+
+
+    int warmups = Integer.getInteger("bench.warmups", 3);
+    int rounds  = Integer.getInteger("bench.rounds",  5);
+    int millis  = Integer.getInteger("bench.millis",  500);
+
+    System.out.printf("%-52s %16s %12s%n", "Benchmark", "ops/s", "B/op");
+    long sink = 0;
+    for (int b=0; b<all.length; b++) {
+      if (!selected(all[b].name, args))
+        continue;
+
+      //Find n so that one round takes roughly millis milliseconds; the
+      //  first try runs cold (e.g., loading classes), so try again after
+      //  the warmup rounds
+      int n = calibrate(all[b], millis);
+      for (int w=0; w<warmups; w++)
+        sink += all[b].run(n);
+      n = calibrate(all[b], millis);
+
+      long nanos = 0, bytes = 0;
+      for (int r=0; r<rounds; r++) {
+        long bytesBefore = allocatedBytes();
+        long start       = System.nanoTime();
+        sink  += all[b].run(n);
+        nanos += System.nanoTime() - start;
+        bytes += allocatedBytes() - bytesBefore;
+      }
+
+      long ops = (long)n * rounds;
+      System.out.printf("%-52s %16.0f %12.1f%n", all[b].name,
+                     ops * 1e9 / nanos, bytes / (double)ops);
+    }
+    System.out.println("(sink " + sink + ")");
+    System.exit(0);   //The UpdateScheduler benchmark leaves Swing's timer thread running
+  }
+
+
+
+  //Helper methods and classes
+
+  //Return an n for which b.run(n) takes about millis milliseconds
+  private static int calibrate(Benchmark b, int millis)
+  {
+    int n = 1;
+    for (;;) {
+      long start = System.nanoTime();
+      b.run(n);
+      if (System.nanoTime() - start > millis * 100_000L || n >= (1 << 26))
+        return (int)(10L*n);
+      n *= 2;
+    }
+  }
+
+
+  private static Benchmark counterUpdate(final int delta)
+  {
+    return new Benchmark("ModularCounter.update(" + delta + ")") {
+      long run(int n) {
+        ModularCounter c = new ModularCounter(256);
+        for (int i=0; i<n; i++)
+          c.update((i & 1) == 0 ? delta : -delta + 1);
+        return c.getValue();
+      }};
+  }
+
+
+  //A 256x256 ARGB image, written to a (stored, so fast to decode) TIFF
+  //  in a temporary file of its own
+  private static File argbImage()
+    throws IOException
+  {
+    BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+    for (int y=0; y<256; y++)
+      for (int x=0; x<256; x++)
+        image.setRGB(x, y, y << 24 | x << 16 | (x ^ y) << 8 | (x + y) & 0xFF);
+    File file = temporary(".tif");
+    ImageIO.write(image, "tif", file);
+    return file;
+  }
+
+
+  //A new temporary file (deleted when the benchmarks exit), so that
+  //  concurrent runs do not share files
+  private static File temporary(String suffix)
+    throws IOException
+  {
+    File file = File.createTempFile("bench", suffix);
+    file.deleteOnExit();
+    return file;
+  }
+
+
+  private static boolean selected(String name, String[] prefixes)
+  {
+    if (prefixes.length == 0)
+      return true;
+    for (int i=0; i<prefixes.length; i++)
+      if (name.startsWith(prefixes[i]))
+        return true;
+    return false;
+  }
+
+
+  //Bytes allocated so far by the current thread
+  private static long allocatedBytes()
+  {return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());}
+
+
+  //An endless stream repeating one line (a pipe that never runs dry)
+  private static class RepeatingInput extends InputStream
+  {
+    RepeatingInput(String line)
+    {this.line = line.getBytes();}
+
+    public int read()
+    {
+      int b = line[next];
+      next = (next + 1) % line.length;
+      return b;
+    }
+
+    public int read(byte[] buffer, int off, int len)
+    {
+      for (int i=0; i<len; i++)
+        buffer[off+i] = (byte)read();
+      return len;
+    }
+
+    private final byte[] line;
+    private int          next;
+  }
+
+
+
+  private static final String[] VALID   = {"0", "17", "128", "255"};
+  private static final String[] INVALID = {"", "abc", "256", "-1x"};
+
+  private static final ImagePipeline.Operation ADD_RED =
+    ImagePipeline.adjust(1, 0, 0, ImageAdjuster.Mode.WRAP);
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+    (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+}
@@ -0,0 +1,198 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.BulkColor
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   BulkColor is a (static) method library that does, for whole arrays of
+// colors, what the Model does for one color: it converts 0xRRGGBB ints to
+// their hexidecimal digits and back (using the same HexCodec tables as
+// Model.getHex, so the output is identical), it packs separate
+// red/green/blue planes into 0xRRGGBB ints and unpacks them again, and
+// it parses entered intensities (with the same ChannelParser as
+// Model.changeColorViaTextField).
+//
+//   Each method is one simple counted loop over primitive arrays, with no
+// allocation and no calls that the JIT cannot inline, which is the shape
+// the JIT compiles into unrolled (and, for the plane methods, SIMD) code.
+//
+//   Every method processes the len colors starting at the given offsets;
+// hex arrays hold 6 chars/bytes per color, with no separators.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: Added parseChannels
+//  10/16/26: parseChannels(byte[]...) checks dst's range up front
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public final class BulkColor
+{
+
+  //Static method library: no objects
+  private BulkColor()
+  {}
+
+
+
+  //Write the hex digits of rgb[off..off+len-1] into dst, starting at dstOff
+  public static void toHex(int[] rgb, int off, int len, char[] dst, int dstOff)
+  {
+    checkRange(rgb.length, off, len, 1);
+    checkRange(dst.length, dstOff, len, 6);
+    for (int i = 0; i < len; i++)
+      HexCodec.encode(rgb[off+i], dst, dstOff + 6*i);
+  }
+
+
+  //Write the hex digits (as ASCII bytes) of rgb[off..off+len-1] into dst,
+  //  starting at dstOff
+  public static void toHex(int[] rgb, int off, int len, byte[] dst, int dstOff)
+  {
+    checkRange(rgb.length, off, len, 1);
+    checkRange(dst.length, dstOff, len, 6);
+    for (int i = 0; i < len; i++)
+      HexCodec.encode(rgb[off+i], dst, dstOff + 6*i);
+  }
+
+
+
+  //Decode len colors of hex digits from src (starting at srcOff) into
+  //  dst[dstOff..dstOff+len-1]; each illegal color is stored as -1
+  //Returns the number of illegal colors
+  public static int fromHex(char[] src, int srcOff, int len, int[] dst, int dstOff)
+  {
+    checkRange(src.length, srcOff, len, 6);
+    checkRange(dst.length, dstOff, len, 1);
+    int illegal = 0;
+    for (int i = 0; i < len; i++) {
+      int rgb = HexCodec.decode(src, srcOff + 6*i);
+      illegal += rgb >>> 31;
+      dst[dstOff+i] = rgb;
+    }
+    return illegal;
+  }
+
+
+  //Decode len colors of hex digits (ASCII bytes) from src (starting at
+  //  srcOff) into dst[dstOff..dstOff+len-1]; each illegal color is stored
+  //  as -1
+  //Returns the number of illegal colors
+  public static int fromHex(byte[] src, int srcOff, int len, int[] dst, int dstOff)
+  {
+    checkRange(src.length, srcOff, len, 6);
+    checkRange(dst.length, dstOff, len, 1);
+    int illegal = 0;
+    for (int i = 0; i < len; i++) {
+      int rgb = HexCodec.decode(src, srcOff + 6*i);
+      illegal += rgb >>> 31;
+      dst[dstOff+i] = rgb;
+    }
+    return illegal;
+  }
+
+
+
+  //Parse the intensities text[off..off+len-1] into dst[dstOff..dstOff+len-1]:
+  //  each is stored as the intensity or a (negative) ChannelParser status
+  //Returns the number of illegal intensities
+  public static int parseChannels(CharSequence[] text, int off, int len, int[] dst, int dstOff)
+  {
+    checkRange(text.length, off, len, 1);
+    checkRange(dst.length,  dstOff, len, 1);
+    int illegal = 0;
+    for (int i = 0; i < len; i++) {
+      int intensity = ChannelParser.parse(text[off+i]);
+      illegal += intensity >>> 31;
+      dst[dstOff+i] = intensity;
+    }
+    return illegal;
+  }
+
+
+  //Parse the intensities in src, one per line (ASCII digits; a line may
+  //  end with \n or \r\n), into dst starting at dstOff: each is stored as
+  //  the intensity or a (negative) ChannelParser status
+  //Returns the number of intensities stored (an empty last line, e.g.,
+  //  after a final \n, is not counted)
+  public static int parseChannels(byte[] src, int off, int len, int[] dst, int dstOff)
+  {
+    checkRange(src.length, off, len, 1);
+    int end   = off + len;
+    int lines = (len > 0 && src[end-1] != '\n' ? 1 : 0);    //Last line has no \n
+    for (int i = off; i < end; i++)
+      if (src[i] == '\n')
+        lines++;
+    checkRange(dst.length, dstOff, lines, 1);
+
+    int count = 0;
+    for (int start = off; start < end; ) {
+      int stop = start;
+      while (stop < end && src[stop] != '\n')
+        stop++;
+      int last = (stop > start && src[stop-1] == '\r' ? stop-1 : stop);
+      dst[dstOff + count++] = ChannelParser.parse(src, start, last-start);
+      start = stop + 1;
+    }
+    return count;
+  }
+
+
+
+  //Pack the planes red/green/blue[off..off+len-1] (unsigned bytes) into
+  //  0xRRGGBB values in dst[dstOff..dstOff+len-1]
+  public static void pack(byte[] red, byte[] green, byte[] blue, int off, int len,
+                          int[] dst, int dstOff)
+  {
+    checkRange(red.length,   off, len, 1);
+    checkRange(green.length, off, len, 1);
+    checkRange(blue.length,  off, len, 1);
+    checkRange(dst.length,   dstOff, len, 1);
+    for (int i = 0; i < len; i++)
+      dst[dstOff+i] = (red  [off+i] & 0xFF) << 16 |
+                      (green[off+i] & 0xFF) <<  8 |
+                      (blue [off+i] & 0xFF);
+  }
+
+
+  //Unpack the 0xRRGGBB values in rgb[off..off+len-1] into the planes
+  //  red/green/blue[dstOff..dstOff+len-1]
+  public static void unpack(int[] rgb, int off, int len,
+                            byte[] red, byte[] green, byte[] blue, int dstOff)
+  {
+    checkRange(rgb.length,   off, len, 1);
+    checkRange(red.length,   dstOff, len, 1);
+    checkRange(green.length, dstOff, len, 1);
+    checkRange(blue.length,  dstOff, len, 1);
+    for (int i = 0; i < len; i++) {
+      int c = rgb[off+i];
+      red  [dstOff+i] = (byte)(c >>> 16);
+      green[dstOff+i] = (byte)(c >>>  8);
+      blue [dstOff+i] = (byte) c;
+    }
+  }
+
+
+
+  //Checking the whole range once, up front, lets the JIT drop the
+  //  per-element bounds checks inside the loops
+  private static void checkRange(int arrayLength, int off, int len, int width)
+  {
+    if (off < 0 || len < 0 || (long)off + (long)len*width > arrayLength)
+      throw new ArrayIndexOutOfBoundsException("BulkColor - range [" + off + "," +
+                                               ((long)off + (long)len*width) +
+                                               ") not in array of length " + arrayLength);
+  }
+}
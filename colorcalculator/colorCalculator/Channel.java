@@ -0,0 +1,77 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Enum           : colorCalculator.Channel
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   Channel names the color channels a ColorModel stores. Each one has an
+// index (RED=0, GREEN=1, BLUE=2, ALPHA=3: the same as PackedColor's
+// channel indexes), which code that changes colors at a high rate can pass
+// to ColorModel's index-based methods, and a label ("Red", ...), which is
+// what the View displays and what the String-based methods accept.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (replaces the Strings "Red", "Green", "Blue")
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public enum Channel
+{
+  RED  ("Red",   PackedColor.RED),
+  GREEN("Green", PackedColor.GREEN),
+  BLUE ("Blue",  PackedColor.BLUE),
+  ALPHA("Alpha", PackedColor.ALPHA);
+
+
+
+  Channel(String label, int index)
+  {
+    this.label = label;
+    this.index = index;
+  }
+
+
+
+  //Return the index of the channel labeled label (e.g., "Red"), or -1 if
+  //  there is no such channel (one switch, not a chain of equals calls)
+  public static int indexOf(String label)
+  {
+    switch (label) {
+      case "Red"  : return PackedColor.RED;
+      case "Green": return PackedColor.GREEN;
+      case "Blue" : return PackedColor.BLUE;
+      case "Alpha": return PackedColor.ALPHA;
+      default     : return -1;
+    }
+  }
+
+
+  //Return the channel with index (like values()[index], but values()
+  //  allocates a new array on each call)
+  public static Channel of(int index)
+  {return BY_INDEX[index];}
+
+
+  public String toString()
+  {return label;}
+
+
+
+  //Instance Variables
+  public final String label;
+  public final int    index;
+
+  private static final Channel[] BY_INDEX = values();
+}
@@ -0,0 +1,116 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ChannelParser
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   ChannelParser is a (static) method library that parses the intensity
+// of one color channel: a decimal integer in the range [0,255]. It never
+// throws an exception (illegal input is common, e.g., while the user is
+// typing, and building an exception with its stack trace costs far more
+// than parsing). Instead, each method returns either the intensity or one
+// of the negative status codes EMPTY, NOT_A_NUMBER, and OUT_OF_RANGE, so
+// callers can test for a legal intensity with (result >= 0).
+//
+//   It accepts exactly what Integer.parseInt accepts (an optional + or -
+// sign followed by digits, with no spaces), so "+17" and "-0" are legal.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (replaces Integer.parseInt in ColorModel)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public final class ChannelParser
+{
+
+  //Static method library: no objects
+  private ChannelParser()
+  {}
+
+
+
+  //Return the intensity in text, or a (negative) status code
+  public static int parse(CharSequence text)
+  {return (text == null ? EMPTY : parse(text,0,text.length()));}
+
+
+  //Return the intensity in text[start..end-1], or a (negative) status code
+  public static int parse(CharSequence text, int start, int end)
+  {
+    if (start >= end)
+      return EMPTY;
+
+    int  i        = start;
+    char c        = text.charAt(i);
+    boolean minus = (c == '-');
+    if (c == '-' || c == '+')
+      if (++i == end)
+        return NOT_A_NUMBER;
+
+    int value = 0;
+    for (; i < end; i++) {
+      c = text.charAt(i);
+      int d = (c >= '0' && c <= '9' ? c - '0' : Character.digit(c,10));
+      if (d < 0)
+        return NOT_A_NUMBER;
+      if (value <= 255)              //Stop growing once out of range, but
+        value = 10*value + d;        //  keep checking all the digits
+    }
+    return result(value,minus);
+  }
+
+
+  //Return the intensity in the len ASCII bytes starting at src[off], or
+  //  a (negative) status code
+  public static int parse(byte[] src, int off, int len)
+  {
+    if (len <= 0)
+      return EMPTY;
+
+    int  i        = off;
+    int  end      = off + len;
+    boolean minus = (src[i] == '-');
+    if (src[i] == '-' || src[i] == '+')
+      if (++i == end)
+        return NOT_A_NUMBER;
+
+    int value = 0;
+    for (; i < end; i++) {
+      int d = src[i] - '0';
+      if (d < 0 || d > 9)
+        return NOT_A_NUMBER;
+      if (value <= 255)
+        value = 10*value + d;
+    }
+    return result(value,minus);
+  }
+
+
+
+  //Helper method: a legal number's status (only -0 may be negative)
+  private static int result(int value, boolean minus)
+  {
+    if (value > 255 || (minus && value != 0))
+      return OUT_OF_RANGE;
+    return value;
+  }
+
+
+
+  //Status codes (all negative, so no intensity is ever mistaken for one)
+  public static final int EMPTY        = -1;   //No characters at all
+  public static final int NOT_A_NUMBER = -2;   //Not an (optionally signed) integer
+  public static final int OUT_OF_RANGE = -3;   //An integer, but not in [0,255]
+}
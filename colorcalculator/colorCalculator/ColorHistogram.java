@@ -0,0 +1,438 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ColorHistogram
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A ColorHistogram counts how often each 0xRRGGBB color appears (e.g.,
+// in the pixels of some images; alpha is ignored), and reports the most
+// common colors in the calculator's hex format ("RRGGBB", as the View and
+// getHex show them).
+//
+//   Colors are counted as ints, never boxed: at first in a primitive
+// open-addressing hash table (colors and counts in two parallel arrays,
+// probed linearly from a multiplicative hash), which is small and fast
+// while there are few distinct colors (as in most images). Once the
+// table would need more memory than a dense array of a count for every
+// possible color (2^24 ints: 64MB), it is replaced by that array, which
+// needs no hashing at all. Runs of equal pixels (common in images) are
+// counted with one table update.
+//
+//   A ColorHistogram is not thread-safe: to count in parallel, each
+// thread counts into its own histogram, and the histograms are merged
+// (add(ColorHistogram)); of(BufferedImage) does this in the common
+// fork/join pool. Counts are ints, so a single color's count saturates:
+// it stops at Integer.MAX_VALUE (it never wraps around to negative, which
+// would rank the most common color last), even if the color is counted
+// more often (e.g., in an image of more than 2^31 pixels); the total is a
+// long, and always exact.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: colors, and of(int[]) (for Quantizer)
+//  10/16/26: Counts saturate at Integer.MAX_VALUE (instead of wrapping)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+
+public class ColorHistogram
+{
+
+  //An empty histogram
+  public ColorHistogram()
+  {
+    keys   = new int[INITIAL_CAPACITY];
+    counts = new int[INITIAL_CAPACITY];
+    Arrays.fill(keys, NO_KEY);
+    shift  = 32 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+  }
+
+
+
+  //The histogram of image's pixels, counted in parallel
+  public static ColorHistogram of(final BufferedImage image)
+  {
+    final int width  = image.getWidth();
+    final int height = image.getHeight();
+    final int rows   = Math.max(1, TILE_PIXELS / width);   //Rows per tile
+    final int tiles  = (height + rows - 1) / rows;
+
+    if (ImageAdjuster.isPackedRGB(image)) {
+      WritableRaster               raster = image.getRaster();
+      SinglePixelPackedSampleModel sm     = (SinglePixelPackedSampleModel)raster.getSampleModel();
+      final int[] data   = ((DataBufferInt)raster.getDataBuffer()).getData();
+      final int   stride = sm.getScanlineStride();
+      final int   base   = raster.getDataBuffer().getOffset()
+                           + sm.getOffset(raster.getMinX() - raster.getSampleModelTranslateX(),
+                                          raster.getMinY() - raster.getSampleModelTranslateY());
+      return IntStream.range(0, tiles).parallel().collect(ColorHistogram::new, (h, t) -> {
+          for (int y = t*rows, stop = Math.min(height, y+rows); y < stop; y++)
+            h.add(data, base + y*stride, width);
+        }, ColorHistogram::add);
+    }
+
+    //Other images: through getRGB, a tile at a time
+    return IntStream.range(0, tiles).parallel().collect(ColorHistogram::new, (h, t) -> {
+        int   y    = t*rows, n = Math.min(rows, height-y);
+        int[] argb = image.getRGB(0, y, width, n, null, 0, width);
+        h.add(argb, 0, argb.length);
+      }, ColorHistogram::add);
+  }
+
+
+
+  //The histogram of the 0xAARRGGBB (or 0xRRGGBB) pixels in
+  //  pixels[off..off+len-1], counted in parallel
+  public static ColorHistogram of(final int[] pixels, final int off, final int len)
+  {
+    if (off < 0 || len < 0 || off + len > pixels.length)
+      throw new ArrayIndexOutOfBoundsException("ColorHistogram - range not in array");
+    return IntStream.range(0, (len + TILE_PIXELS - 1) / TILE_PIXELS).parallel().collect(ColorHistogram::new, (h, t) -> {
+        int start = t*TILE_PIXELS;
+        h.add(pixels, off + start, Math.min(TILE_PIXELS, len - start));
+      }, ColorHistogram::add);
+  }
+
+
+
+  //Count rgb (an 0xRRGGBB color; any alpha is ignored) once
+  public void add(int rgb)
+  {add(rgb, 1);}
+
+
+  //Count rgb (an 0xRRGGBB color; any alpha is ignored) times times
+  public void add(int rgb, int times)
+  {
+    if (times < 0)
+      throw new IllegalArgumentException("ColorHistogram - times("+times+") negative");
+    if (times == 0)
+      return;
+    rgb &= PackedColor.RGB_MASK;
+    total += times;
+    if (dense != null)
+      dense[rgb] = plus(dense[rgb], times);
+    else
+      addSparse(rgb, times);
+  }
+
+
+  //Count each of the 0xAARRGGBB (or 0xRRGGBB) pixels in
+  //  pixels[off..off+len-1]
+  public void add(int[] pixels, int off, int len)
+  {
+    if (off < 0 || len < 0 || off + len > pixels.length)
+      throw new ArrayIndexOutOfBoundsException("ColorHistogram - range not in array");
+    total += len;
+    int end = off + len;
+    if (dense != null) {
+      int[] d = dense;
+      for (int i = off; i < end; i++) {
+        int rgb = pixels[i] & PackedColor.RGB_MASK;
+        if (d[rgb] != Integer.MAX_VALUE)
+          d[rgb]++;
+      }
+      return;
+    }
+
+    for (int i = off; i < end; ) {
+      int rgb = pixels[i] & PackedColor.RGB_MASK;
+      int j   = i + 1;
+      while (j < end && (pixels[j] & PackedColor.RGB_MASK) == rgb)
+        j++;
+      if (dense != null)              //Became dense during this run
+        dense[rgb] = plus(dense[rgb], j - i);
+      else
+        addSparse(rgb, j - i);
+      i = j;
+    }
+  }
+
+
+  //Count everything counted by other (e.g., by another thread)
+  public void add(ColorHistogram other)
+  {
+    if (other.dense != null) {
+      if (dense == null)
+        makeDense();
+      for (int rgb = 0; rgb < COLORS; rgb++)
+        dense[rgb] = plus(dense[rgb], other.dense[rgb]);
+    } else
+      for (int i = 0; i < other.keys.length; i++)
+        if (other.keys[i] != NO_KEY) {
+          if (dense != null)
+            dense[other.keys[i]] = plus(dense[other.keys[i]], other.counts[i]);
+          else
+            addSparse(other.keys[i], other.counts[i]);
+        }
+    total += other.total;
+  }
+
+
+  //Forget every count
+  public void clear()
+  {
+    dense  = null;
+    keys   = new int[INITIAL_CAPACITY];
+    counts = new int[INITIAL_CAPACITY];
+    Arrays.fill(keys, NO_KEY);
+    shift  = 32 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    size   = 0;
+    total  = 0;
+  }
+
+
+
+  //The number of times rgb has been counted
+  public int count(int rgb)
+  {
+    rgb &= PackedColor.RGB_MASK;
+    if (dense != null)
+      return dense[rgb];
+    for (int i = (rgb * HASH) >>> shift; ; i = (i + 1) & (keys.length - 1))
+      if (keys[i] == rgb)
+        return counts[i];
+      else if (keys[i] == NO_KEY)
+        return 0;
+  }
+
+
+  //The number of different colors counted
+  public int distinct()
+  {
+    if (dense == null)
+      return size;
+    int n = 0;
+    for (int rgb = 0; rgb < COLORS; rgb++)
+      if (dense[rgb] != 0)
+        n++;
+    return n;
+  }
+
+
+  //The different colors counted, in increasing order
+  public int[] colors()
+  {
+    int[] colors = new int[distinct()];
+    int   n      = 0;
+    if (dense != null) {
+      for (int rgb = 0; rgb < COLORS; rgb++)
+        if (dense[rgb] != 0)
+          colors[n++] = rgb;
+    } else {
+      for (int i = 0; i < keys.length; i++)
+        if (keys[i] != NO_KEY)
+          colors[n++] = keys[i];
+      Arrays.sort(colors);
+    }
+    return colors;
+  }
+
+
+  //The number of colors counted (each as many times as it was counted)
+  public long total()
+  {return total;}
+
+
+
+  //The (at most) n most common colors, most common first (colors counted
+  //  equally often are in increasing order)
+  public int[] top(int n)
+  {
+    if (n < 0)
+      throw new IllegalArgumentException("ColorHistogram - n("+n+") negative");
+
+    //A min-heap of the best n so far, each as count<<24 | ~rgb (so larger
+    //  is better: more common, then smaller rgb)
+    n = Math.min(n, dense != null ? COLORS : size);
+    long[] heap = new long[Math.max(1, n)];
+    int    used = 0;
+    for (int i = 0, end = (dense != null ? COLORS : keys.length); i < end && n > 0; i++) {
+      int rgb, count;
+      if (dense != null) {
+        rgb = i;
+        count = dense[i];
+      } else {
+        rgb = keys[i];
+        count = counts[i];
+        if (rgb == NO_KEY)
+          continue;
+      }
+      if (count == 0)
+        continue;
+      long key = ((long)count << 24) | (~rgb & PackedColor.RGB_MASK);
+      if (used < n)
+        siftUp(heap, used++, key);
+      else if (key > heap[0])
+        siftDown(heap, used, key);
+    }
+
+    long[] best = Arrays.copyOf(heap, used);
+    Arrays.sort(best);
+    int[] top = new int[used];
+    for (int i = 0; i < used; i++)
+      top[i] = ~(int)best[used-1-i] & PackedColor.RGB_MASK;
+    return top;
+  }
+
+
+  //Append the (at most) n most common colors to out, one per line: its
+  //  hex, count, and percentage of the total (e.g., "FF8000 1234 5.67%")
+  public void report(int n, Appendable out)
+    throws IOException
+  {
+    int[] top = top(n);
+    for (int i = 0; i < top.length; i++) {
+      int count = count(top[i]);
+      HexCodec.encode(top[i], out);
+      out.append(' ').append(Integer.toString(count)).append(' ')
+         .append(String.format("%.2f%%", 100.0 * count / total)).append('\n');
+    }
+  }
+
+
+  //The report above, as a String
+  public String report(int n)
+  {
+    StringBuilder sb = new StringBuilder();
+    try {
+      report(n, sb);
+    } catch (IOException e) {
+      throw new AssertionError(e);     //StringBuilders do not throw it
+    }
+    return sb.toString();
+  }
+
+
+
+  //Helper methods
+
+  private void addSparse(int rgb, int times)
+  {
+    int mask = keys.length - 1;
+    for (int i = (rgb * HASH) >>> shift; ; i = (i + 1) & mask)
+      if (keys[i] == rgb) {
+        counts[i] = plus(counts[i], times);
+        return;
+      } else if (keys[i] == NO_KEY) {
+        keys[i]   = rgb;
+        counts[i] = times;
+        if (++size > (keys.length >> 1))   //At most half full
+          grow();
+        return;
+      }
+  }
+
+
+  //count + times (both not negative), or Integer.MAX_VALUE if that is more
+  private static int plus(int count, int times)
+  {
+    int sum = count + times;
+    return (sum < 0 ? Integer.MAX_VALUE : sum);
+  }
+
+
+  //Double the table, or make the histogram dense once the doubled table
+  //  (2 ints per slot) would be as large as the dense array
+  private void grow()
+  {
+    if (2L * (2 * keys.length) >= COLORS) {
+      makeDense();
+      return;
+    }
+    int[] oldKeys = keys, oldCounts = counts;
+    keys   = new int[2 * oldKeys.length];
+    counts = new int[2 * oldKeys.length];
+    Arrays.fill(keys, NO_KEY);
+    shift--;
+    int mask = keys.length - 1;
+    for (int j = 0; j < oldKeys.length; j++)
+      if (oldKeys[j] != NO_KEY) {
+        int i = (oldKeys[j] * HASH) >>> shift;
+        while (keys[i] != NO_KEY)
+          i = (i + 1) & mask;
+        keys[i]   = oldKeys[j];
+        counts[i] = oldCounts[j];
+      }
+  }
+
+
+  private void makeDense()
+  {
+    dense = new int[COLORS];
+    for (int i = 0; i < keys.length; i++)
+      if (keys[i] != NO_KEY)
+        dense[keys[i]] = counts[i];
+    keys   = null;
+    counts = null;
+    size   = 0;
+  }
+
+
+  //Add key to the min-heap heap[0..used-1] (at used)
+  private static void siftUp(long[] heap, int at, long key)
+  {
+    while (at > 0) {
+      int parent = (at - 1) >> 1;
+      if (heap[parent] <= key)
+        break;
+      heap[at] = heap[parent];
+      at = parent;
+    }
+    heap[at] = key;
+  }
+
+
+  //Replace the smallest key in the min-heap heap[0..used-1] with key
+  private static void siftDown(long[] heap, int used, long key)
+  {
+    int at = 0;
+    for (;;) {
+      int child = 2*at + 1;
+      if (child >= used)
+        break;
+      if (child + 1 < used && heap[child+1] < heap[child])
+        child++;
+      if (key <= heap[child])
+        break;
+      heap[at] = heap[child];
+      at = child;
+    }
+    heap[at] = key;
+  }
+
+
+
+  //Fields (all instance variables)
+  private int[] keys;          //Sparse: colors (NO_KEY: empty slot), and
+  private int[] counts;        //  their counts; null once dense
+  private int   shift;         //32 - log2(keys.length)
+  private int   size;          //Colors in keys
+  private int[] dense;         //A count for every color, or null
+  private long  total;
+
+  private static final int COLORS           = 1 << 24;
+  private static final int NO_KEY           = -1;         //Not an 0xRRGGBB color
+  private static final int HASH             = 0x9E3779B9; //2^32 / golden ratio
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  private static final int TILE_PIXELS      = 1 << 16;
+}
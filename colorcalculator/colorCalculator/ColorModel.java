@@ -0,0 +1,564 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ColorModel
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   The ColorModel is the headless core of the colorCalculator package:
+// it stores the red/green/blue intensities of a color (packed into one
+// long; see PackedColor), changes them in response to entered text and
+// +/- amounts (changeColorViaTextField, changeColorViaButton,
+// changeColorViaHex), and tells its ModelListeners each time it changes
+// (they call this classes getRed/Green/Blue and getHex methods). For
+// debugging purposes, each time before calling its listeners, the model
+// records the change and its resulting state in an EventLog (which can
+// be switched on/off, and dumped to a file). It can also report the
+// nearest named color to its current color (from ColorNames.CSS, unless
+// it is given another palette).
+//
+//   Each change is also recorded in the model's History (a ring buffer of
+// its last states), so changes can be undone and redone (undo, redo, and
+// jumpTo any remembered step). Moving through the history tells the
+// listeners, and is logged as an EventLog.HISTORY event, but is not
+// itself recorded in the history.
+//
+//   A model can also append each change to a Journal (files that outlive
+// the program), and rebuild its History and state by replaying one. The
+// journal gets exactly the History's new steps and moves, appended by the
+// recorder (see below), so they are in the order they were installed;
+// a state the recorder records for other threads' changes is journaled
+// as an EventLog.STATE record.
+//
+//   Each method that takes a color's name ("Red", ...) has a version that
+// takes a Channel index instead (e.g., changeColor(Channel.RED.index,10)),
+// for code that changes colors at a high rate. A model constructed with
+// an alpha channel also accepts Channel.ALPHA ("Alpha"); other models
+// ignore it, just like any other bad color.
+//
+//   This class refers to no AWT/Swing classes (not even View), so batch
+// and service processes can use it without loading them. The Model class
+// extends it with what the GUI application needs.
+//
+//   A ColorModel can be shared by many threads with no locks: its whole
+// state is one volatile long, and each change computes a new state from
+// the old one and installs it with compare-and-set (retrying if another
+// thread got there first). So concurrent +/- amounts are never lost, and
+// a reader that calls snapshot() (or getState()) always gets a red, green,
+// and blue that were stored together. Calling getRed, getGreen, and
+// getBlue one after another reads the state three times.
+//
+//   The History is changed by one thread at a time, the recorder, with no
+// locks either. After installing its change, a thread becomes the
+// recorder only if no other thread is (one compare-and-set); the
+// recorder records the latest state, and before it stops, records again
+// if the state changed meanwhile (the thread that changed it found it
+// recording, and went on). So the history's steps are always in the
+// order the changes were installed, and its current step is always the
+// latest state (changes made at the same time may be recorded as one
+// step). Undo, redo, and jumpTo wait to become the recorder (yielding),
+// then install the state they move to with compare-and-set: if the state
+// changed meanwhile, the change is recorded and the move made from it.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (split out of Model)
+//  10/16/26: Lock-free (compare-and-set) state changes; snapshot()
+//  10/16/26: Changes recorded in an EventLog, not printed on the console
+//  10/16/26: Text parsed by ChannelParser (no exceptions)
+//  10/16/26: Channel-indexed methods; optional alpha channel
+//  10/16/26: getNearestColorName (from a ColorNames palette)
+//  10/16/26: Undo/redo/jumpTo through a History of states
+//  10/16/26: Changes appended to an (optional) Journal; replay
+//  10/16/26: Constructor choosing the History's capacity
+//  10/16/26: History recorded in order, with no locks; undo/redo/jumpTo
+//            install states with compare-and-set
+//  10/16/26: replay makes HISTORY records' moves (undo/redo/jumpTo) again
+//  10/16/26: eventLog volatile (set by one thread, used by all)
+//  10/16/26: Journal appended by the recorder (in install order)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+
+package colorCalculator;
+
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+
+public class ColorModel {
+
+  public ColorModel ()
+  {this(false);}
+
+
+  //A model with an alpha channel (if withAlpha is true) handles ARGB colors
+  public ColorModel (boolean withAlpha)
+  {this(withAlpha,History.DEFAULT_CAPACITY);}
+
+
+  //A model whose History remembers historyCapacity states (servers with
+  //  many models may want small ones)
+  public ColorModel (boolean withAlpha, int historyCapacity)
+  {
+    //All colors initialized to "not entered" in the declaration of state
+    channels = (withAlpha ? PackedColor.CHANNELS : PackedColor.ALPHA);
+    history  = new History(historyCapacity);
+  }
+
+
+
+  //Refer to a listener (its update method is called after each change)
+  //Listeners are stored in an array that is replaced (never changed) on
+  //  each add/remove, so telling them about a change allocates nothing
+  public synchronized void addListener(ModelListener l)
+  {
+    ModelListener[] more = new ModelListener[listeners.length+1];
+    System.arraycopy(listeners,0,more,0,listeners.length);
+    more[listeners.length] = l;
+    listeners = more;
+  }
+
+
+  public synchronized void removeListener(ModelListener l)
+  {
+    for (int i=0; i<listeners.length; i++)
+      if (listeners[i] == l) {
+        ModelListener[] fewer = new ModelListener[listeners.length-1];
+        System.arraycopy(listeners,0,fewer,0,i);
+        System.arraycopy(listeners,i+1,fewer,i,fewer.length-i);
+        listeners = fewer;
+        return;
+      }
+  }
+
+
+
+  //Implement method called by main (and any code that has a color's name)
+  public void changeColorViaTextField(String color, String intensity)
+  {changeColorViaTextField(Channel.indexOf(color),intensity);}
+
+
+  //Implement method called by controller (channel is a Channel index)
+  public void changeColorViaTextField(int channel, String intensity)
+  {
+    //Compute the real value for the color: the parser returns a negative
+    //  status (instead of throwing an exception) if it is not a number
+    //  in the range [0..255]; then don't set value; use not entered one
+    set(channel,ChannelParser.parse(intensity),EventLog.TEXT);
+  }
+
+
+  //Set channel (a Channel index) to intensity; any intensity outside
+  //  [0,255] marks the channel as not entered
+  public void setColor(int channel, int intensity)
+  {set(channel,intensity,EventLog.TEXT);}
+
+
+
+  //Implement method called by main (and any other code that has a
+  //  "#RRGGBB" or "RRGGBB" value): sets all three colors at once (alpha,
+  //  if this model has it, is unchanged)
+  public void changeColorViaHex(String hex)
+  {
+    //Illegal value: assume all colors illegal (like a bad text field)
+    int rgb = HexCodec.decode(hex);
+    int rgbState = (rgb == -1 ? PackedColor.EMPTY : PackedColor.ofRGB(rgb));
+
+    long old, now;
+    do {
+      old = state;
+      now = (old & ~0xFFFFFFFFL) | rgbState;
+    } while (!STATE.compareAndSet(this,old,now));
+
+    changed(EventLog.HEX,EventLog.ALL,rgb,now);
+  }
+
+
+
+  //Implement method called by main (and any code that has a color's name)
+  public void changeColorViaButton(String color, int amount)
+  {changeColor(Channel.indexOf(color),amount);}
+
+
+  //Implement method called by controller: increment channel (a Channel
+  //  index) by delta (modulo 256), only if it has a correct value
+  public void changeColor(int channel, int delta)
+  {
+    if (!hasChannel(channel))
+      return;  //Not a good color!
+
+    long old, now;
+    do {
+      old = state;
+      if (!PackedColor.isValid(old,channel))
+        return;  //Not a good color!
+      now = PackedColor.update(old,channel,delta);
+    } while (!STATE.compareAndSet(this,old,now));
+
+    changed(EventLog.BUTTON,channel,delta,now);
+  }
+
+
+
+  //Undo the last change (or the last one not yet undone); return whether
+  //  there was one to undo
+  public boolean undo()
+  {return restore(UNDO,0);}
+
+
+  //Redo the last change undone; return whether there was one to redo
+  public boolean redo()
+  {return restore(REDO,0);}
+
+
+  //Restore the state at step (see History); return whether it is still
+  //  remembered
+  public boolean jumpTo(long step)
+  {return restore(JUMP,step);}
+
+
+
+  //Listeners call these accessors
+  public int getRed()
+  {return PackedColor.get(state,PackedColor.RED);}
+
+
+  public int getGreen()
+  {return PackedColor.get(state,PackedColor.GREEN);}
+
+
+  public int getBlue()
+  {return PackedColor.get(state,PackedColor.BLUE);}
+
+
+  public int getAlpha()
+  {return PackedColor.get(state,PackedColor.ALPHA);}
+
+
+  //Return the intensity of channel (a Channel index), or -1 if it is not
+  //  entered (or this model does not have it)
+  public int getColor(int channel)
+  {return (hasChannel(channel) ? PackedColor.get(state,channel) : -1);}
+
+
+  //Colors not entered appear as "--" (e.g., "FF--00")
+  public String getHex()
+  {
+    char[] hex = new char[6];
+    HexCodec.encodeState(PackedColor.rgbState(state),hex,0);
+    return new String(hex);
+  }
+
+
+  //The red/green/blue state, packed as described in PackedColor
+  public int getState()
+  {return PackedColor.rgbState(state);}
+
+
+  //The whole state, including alpha, packed as described in PackedColor
+  public long getFullState()
+  {return state;}
+
+
+  //An immutable copy of the whole state (read in one step)
+  public ColorSnapshot snapshot()
+  {return new ColorSnapshot(state);}
+
+
+  //The name of the color in this model's palette nearest to its color,
+  //  or null if some color is not entered (or the palette is empty)
+  public String getNearestColorName()
+  {
+    long s = state;
+    return (PackedColor.isComplete(s) ? colorNames.nearestName(PackedColor.rgb(s)) : null);
+  }
+
+
+  //Whether this model has an alpha channel
+  public boolean hasAlpha()
+  {return channels > PackedColor.ALPHA;}
+
+
+
+  //Record changes in log instead of EventLog.DEFAULT
+  public void setEventLog(EventLog log)
+  {eventLog = log;}
+
+
+  public EventLog getEventLog()
+  {return eventLog;}
+
+
+
+  //Record states in h instead of a History of DEFAULT_CAPACITY (which
+  //  forgets all the steps recorded so far: the current state is h's
+  //  only step)
+  public void setHistory(History h)
+  {
+    becomeRecorder();
+    h.reset(state);
+    history = h;
+    recordAndStop();
+  }
+
+
+  public History getHistory()
+  {return history;}
+
+
+
+  //Append each change to journal (or to none, if it is null)
+  public void setJournal(Journal journal)
+  {this.journal = journal;}
+
+
+  public Journal getJournal()
+  {return journal;}
+
+
+  //Record every state in journal in this model's History (moves through
+  //  the history, its HISTORY records, are made again, not recorded), and
+  //  make the last one the current state (replacing the model's state);
+  //  return the number of records replayed
+  public long replay(Journal journal)
+    throws IOException
+  {
+    final History h;
+    long n, replayed;
+    becomeRecorder();
+    try {
+      h = history;
+      n = journal.replay(new Journal.Visitor() {
+        public void visit(long time, int kind, int channel, int argument, long state)
+        {
+          if (kind != EventLog.HISTORY) {
+            h.record(state);
+            return;
+          }
+          //argument is the low 32 bits of the step moved to (the one
+          //  nearest the current step); if it is gone, record its state
+          long step = h.getCurrentStep() + (argument - (int)h.getCurrentStep());
+          if (h.getState(step) == state)
+            h.jumpTo(step);
+          else
+            h.record(state);
+        }
+      });
+      replayed = h.getState();
+      if (n > 0) {
+        long old;
+        do
+          old = state;
+        while (!STATE.compareAndSet(this,old,replayed));
+      }
+      if (n > 0)
+        append(EventLog.HISTORY,EventLog.ALL,(int)h.getCurrentStep(),replayed);
+    } finally {
+      recordAndStop();
+    }
+    if (n > 0)
+      tell(EventLog.HISTORY,EventLog.ALL,(int)h.getCurrentStep(),replayed);
+    return n;
+  }
+
+
+
+  //Find nearest names in names instead of ColorNames.CSS
+  public void setColorNames(ColorNames names)
+  {colorNames = names;}
+
+
+  public ColorNames getColorNames()
+  {return colorNames;}
+
+
+
+  //Primarily for debugging purposes
+  public String toString()
+  {
+    long s = state;
+    return "Model[red=" + show(PackedColor.get(s,PackedColor.RED))   +
+           ", green="   + show(PackedColor.get(s,PackedColor.GREEN)) +
+           ", blue="    + show(PackedColor.get(s,PackedColor.BLUE))  +
+           (hasAlpha() ? ", alpha=" + show(PackedColor.get(s,PackedColor.ALPHA)) : "") +"]";
+  }
+
+
+
+  //Helper methods
+
+  //Set channel to intensity (or mark it not entered, if intensity is not
+  //  in [0,255]), and tell everyone that this kind of change happened
+  private void set(int channel, int intensity, int kind)
+  {
+    if (!hasChannel(channel))
+      return;  //Not a good color!
+    boolean legal = (0 <= intensity && intensity <= 255);
+
+    long old, now;
+    do {
+      old = state;
+      now = (legal ? PackedColor.set  (old,channel,intensity)
+                   : PackedColor.clear(old,channel));
+    } while (!STATE.compareAndSet(this,old,now));
+
+    changed(kind,channel,intensity,now);
+  }
+
+
+  //Remember the new state, always record the change (if the log is
+  //  enabled), and update all listeners
+  private void changed(int kind, int channel, int argument, long now)
+  {
+    if (RECORDER.compareAndSet(this,0,1))
+      recordAndStop(kind,channel,argument,now);    //Else the recorder records it
+    tell(kind,channel,argument,now);
+  }
+
+
+  //Make move (UNDO, REDO, or JUMP to step) through the history, and
+  //  install the state it moves to, unless there is none; then log it as
+  //  a step of the history and update all listeners
+  private boolean restore(int move, long step)
+  {
+    long restored, at;
+    becomeRecorder();
+    try {
+      History h = history;
+      for (;;) {
+        //Move from the latest state (recording it, if it is not yet)
+        long latest = state;
+        record(latest,EventLog.STATE,EventLog.ALL,0);
+        long from = h.getCurrentStep();
+        restored = (move == UNDO ? h.undo() : move == REDO ? h.redo() : h.jumpTo(step));
+        if (restored == History.NONE)
+          return false;
+        at = h.getCurrentStep();
+        if (STATE.compareAndSet(this,latest,restored))
+          break;
+        h.jumpTo(from);    //Changed meanwhile: move from the new state
+      }
+      append(EventLog.HISTORY,EventLog.ALL,(int)at,restored);
+    } finally {
+      recordAndStop();
+    }
+    tell(EventLog.HISTORY,EventLog.ALL,(int)at,restored);
+    return true;
+  }
+
+
+  //Wait (yielding) until this thread is the recorder
+  private void becomeRecorder()
+  {
+    while (!RECORDER.compareAndSet(this,0,1))
+      Thread.yield();
+  }
+
+
+  //As the recorder: record the latest state, and stop being the recorder;
+  //  if the state changed meanwhile, its changer may have found this
+  //  thread recording, so record it too (unless another thread has become
+  //  the recorder). If a recorded state is now, this thread's change, it
+  //  is journaled as that change (kind, channel, argument); any other is
+  //  journaled as a STATE
+  private void recordAndStop(int kind, int channel, int argument, long now)
+  {
+    long recorded;
+    do {
+      recorded = state;
+      if (recorded == now) {
+        record(recorded,kind,channel,argument);
+        now = History.NONE;       //Journaled once
+      } else
+        record(recorded,EventLog.STATE,EventLog.ALL,0);
+      recorder = 0;
+    } while (state != recorded && RECORDER.compareAndSet(this,0,1));
+  }
+
+
+  //As above, for a thread with no change of its own
+  private void recordAndStop()
+  {recordAndStop(EventLog.STATE,EventLog.ALL,0,History.NONE);}
+
+
+  //As the recorder: record s in the history and, if it is a new step,
+  //  append it to the journal as a change of kind
+  private void record(long s, int kind, int channel, int argument)
+  {
+    History h = history;
+    if (h.getState() == s)
+      return;
+    h.record(s);
+    append(kind,channel,argument,s);
+  }
+
+
+  //As the recorder: append a record to the journal (if there is one)
+  private void append(int kind, int channel, int argument, long s)
+  {
+    Journal j = journal;
+    if (j != null)
+      j.append(kind,channel,argument,s);
+  }
+
+
+  //Log the change and update all listeners (the journal is appended to
+  //  by the recorder)
+  private void tell(int kind, int channel, int argument, long now)
+  {
+    eventLog.record(kind,channel,argument,now);
+    ModelListener[] toTell = listeners;
+    for (int i=0; i<toTell.length; i++)
+      toTell[i].update();
+  }
+
+
+  //Whether channel is the index of a channel in this model
+  private boolean hasChannel(int channel)
+  {return 0 <= channel && channel < channels;}
+
+
+  //Show a channel the way its ModularCounter used to print itself
+  private static String show (int i)
+  {return (i == -1 ? "null" : i + "(mod 256)");}
+
+
+
+  //Fields (all instance variables)
+  private volatile ModelListener[] listeners = NO_LISTENERS;  // told after each change
+
+  private volatile long state = PackedColor.EMPTY;  // red/green/blue/alpha (see PackedColor)
+
+  private final int channels;                        // 3, or 4 with alpha
+
+  private volatile EventLog eventLog = EventLog.DEFAULT;  // records each change
+
+  private volatile History history;                  // undo/redo
+
+  private volatile int recorder;                     // 1: a thread is changing history
+
+  private volatile Journal journal;                  // null: none
+
+  private volatile ColorNames colorNames = ColorNames.CSS;  // for nearest names
+
+  private static final ModelListener[] NO_LISTENERS = new ModelListener[0];
+
+  private static final AtomicLongFieldUpdater<ColorModel> STATE =
+    AtomicLongFieldUpdater.newUpdater(ColorModel.class,"state");
+
+  private static final AtomicIntegerFieldUpdater<ColorModel> RECORDER =
+    AtomicIntegerFieldUpdater.newUpdater(ColorModel.class,"recorder");
+
+  //Moves through the history (see restore)
+  private static final int UNDO = 0, REDO = 1, JUMP = 2;
+}
@@ -0,0 +1,559 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ColorNames
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A ColorNames object is a palette of named 0xRRGGBB colors (e.g., the
+// CSS/X11 names in CSS, or a palette loaded from a file) that can quickly
+// find the named color(s) nearest to any color (by Euclidean distance in
+// RGB; distances are returned squared).
+//
+//   The colors are indexed by a 3D grid over RGB: each cell is a cube of
+// RGB space, storing the (color,index) pairs of the entries inside it in
+// one int array. A search scans the cell holding the color, then shells
+// of cells around it (cells 1 away, 2 away, ...), stopping as soon as no
+// entry in a further shell can be nearer than the ones already found. So
+// a search examines only a few cells' entries, and allocates nothing.
+// Cells (or whole shells) that cannot hold a nearer entry are skipped.
+// The grid gets finer as the palette grows (from 2 up to 32 cells on a
+// side, keeping about 4 entries per cell); adding or removing one entry
+// changes only its cell.
+//
+//   A palette file has one "name #RRGGBB" entry per line (the name is
+// everything before the color, so it may contain spaces; the '#' is
+// optional). Blank lines, and lines starting with '#' or '!', are ignored.
+// Adding a name already in the palette changes its color.
+//
+//   ColorNames objects are thread-safe: any number of threads can search
+// at the same time; a thread changing the palette excludes them.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+public class ColorNames
+{
+
+  //An empty palette
+  public ColorNames()
+  {regrid(MIN_BITS);}
+
+
+
+  //Return a new palette of the CSS/X11 color names
+  public static ColorNames css()
+  {
+    ColorNames names = new ColorNames();
+    for (int i = 0; i < CSS_NAMES.length; i += 2)
+      names.add(CSS_NAMES[i], Integer.parseInt(CSS_NAMES[i+1],16));
+    return names;
+  }
+
+
+
+  //Add name with color rgb (0xRRGGBB; higher bits are ignored), or change
+  //  its color if name is already in the palette
+  public void add(String name, int rgb)
+  {
+    rgb &= PackedColor.RGB_MASK;
+    lock.writeLock().lock();
+    try {
+      Integer old = byName.get(name);
+      if (old != null) {
+        int i = old;
+        unlink(i);
+        colors[i] = rgb;
+        link(i);
+        return;
+      }
+      if (size == names.length) {
+        names  = Arrays.copyOf(names,  2*size);
+        colors = Arrays.copyOf(colors, 2*size);
+      }
+      names [size] = name;
+      colors[size] = rgb;
+      byName.put(name,size);
+      if (bitsFor(++size) != bits)
+        regrid(bitsFor(size));
+      else
+        link(size-1);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+
+  //Remove name from the palette; return whether it was in it (the last
+  //  entry takes the removed one's index)
+  public boolean remove(String name)
+  {
+    lock.writeLock().lock();
+    try {
+      Integer old = byName.remove(name);
+      if (old == null)
+        return false;
+      int i = old, last = --size;
+      unlink(i);
+      if (i != last) {
+        unlink(last);
+        names [i] = names [last];
+        colors[i] = colors[last];
+        byName.put(names[i],i);
+        link(i);
+      }
+      names[last] = null;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+
+  //Add every entry in a palette file; return the number of lines added
+  //  (throws IOException, naming the line, for a malformed line)
+  public int load(File file)
+    throws IOException
+  {
+    try (Reader in = new FileReader(file)) {
+      return load(in);
+    }
+  }
+
+
+  public int load(Reader source)
+    throws IOException
+  {
+    BufferedReader in = new BufferedReader(source);
+    int added = 0, lineNumber = 0;
+    for (String line; (line = in.readLine()) != null; ) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(0) == '!')
+        continue;
+      int split = line.length();
+      while (split > 0 && !Character.isWhitespace(line.charAt(split-1)))
+        split--;
+      int rgb = HexCodec.decode(line.substring(split));
+      String name = line.substring(0,split).trim();
+      if (rgb == -1 || name.isEmpty())
+        throw new IOException("ColorNames - line " + lineNumber + " (" + line + ") is not \"name #RRGGBB\"");
+      add(name,rgb);
+      added++;
+    }
+    return added;
+  }
+
+
+  //Write every entry (in index order) to a palette file, replacing
+  //  anything in it
+  public void save(File file)
+    throws IOException
+  {
+    try (Writer out = new BufferedWriter(new FileWriter(file))) {
+      save(out);
+    }
+  }
+
+
+  public void save(Writer out)
+    throws IOException
+  {
+    char[] hex = new char[8];
+    hex[0] = ' ';
+    hex[1] = '#';
+    lock.readLock().lock();
+    try {
+      for (int i = 0; i < size; i++) {
+        HexCodec.encode(colors[i],hex,2);
+        out.write(names[i]);
+        out.write(hex);
+        out.write('\n');
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+
+  //Accessors: entries are indexed 0..size()-1
+
+  public int size()
+  {return size;}
+
+
+  public String getName(int index)
+  {
+    lock.readLock().lock();
+    try {
+      checkIndex(index);
+      return names[index];
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+  public int getColor(int index)
+  {
+    lock.readLock().lock();
+    try {
+      checkIndex(index);
+      return colors[index];
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+  //Return the index of name, or -1 if it is not in the palette
+  public int indexOf(String name)
+  {
+    lock.readLock().lock();
+    try {
+      Integer i = byName.get(name);
+      return (i == null ? -1 : i);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+
+  //Return the name of the entry nearest to rgb, or null if the palette
+  //  is empty
+  public String nearestName(int rgb)
+  {
+    lock.readLock().lock();
+    try {
+      int i = (int)search(rgb & PackedColor.RGB_MASK, NONE, 0, null, null);
+      return (i == -1 ? null : names[i]);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+  //Return the index of the entry nearest to rgb, or -1 if the palette is
+  //  empty (of equally near entries, the one with the lowest index)
+  public int nearest(int rgb)
+  {
+    lock.readLock().lock();
+    try {
+      return (int)search(rgb & PackedColor.RGB_MASK, NONE, 0, null, null);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+  //Store the indexes of the k entries nearest to rgb in indexes[0..k-1]
+  //  (nearest first), and their squared distances from rgb in
+  //  distances[0..k-1], where k is indexes.length; return the number
+  //  stored (less than k only if the palette has fewer entries)
+  public int nearest(int rgb, int[] indexes, int[] distances)
+  {
+    if (distances.length < indexes.length)
+      throw new IllegalArgumentException("ColorNames - distances shorter than indexes");
+    if (indexes.length == 0)
+      return 0;
+    lock.readLock().lock();
+    try {
+      return (int)search(rgb & PackedColor.RGB_MASK, 0, indexes.length, indexes, distances);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+
+
+  //Helper methods (all called with the lock held)
+
+  //Search the shells of cells around rgb's cell. With no indexes array,
+  //  found is the best (distance << 32 | index) so far, and the index of
+  //  the nearest entry is returned; otherwise found is how many of the
+  //  k nearest have been found, and that count is returned
+  private long search(int rgb, long found, int k, int[] indexes, int[] distances)
+  {
+    int width = 256 >> bits, last = side - 1;
+    int r = (rgb >>> 16) & 0xFF, g = (rgb >>> 8) & 0xFF, b = rgb & 0xFF;
+    int cr = r / width, cg = g / width, cb = b / width;
+    int edge = Math.min(gapToEdge(r,width), Math.min(gapToEdge(g,width), gapToEdge(b,width)));
+
+    for (int shell = 0; shell <= last; shell++) {
+      //Entries in this shell are at least gap away (stop if that is farther
+      //  than the worst of the nearest found so far)
+      if (shell > 0) {
+        long gap = (long)(shell-1) * width + edge + 1;
+        if (worst(found,k,distances,indexes) < gap*gap)
+          break;
+      }
+      for (int i = Math.max(0,cr-shell); i <= Math.min(last,cr+shell); i++) {
+        int dr = axisGap(r, i*width, width);
+        for (int j = Math.max(0,cg-shell); j <= Math.min(last,cg+shell); j++) {
+          int dg   = axisGap(g, j*width, width);
+          int cell = (i*side + j)*side;
+          //Only the two cells at the ends of the blue axis are in the shell,
+          //  unless i or j is at the shell's edge
+          boolean all  = (shell == 0 || Math.abs(i-cr) == shell || Math.abs(j-cg) == shell);
+          int     step = (all ? 1 : 2*shell);
+          for (int l = cb-shell; l <= Math.min(last,cb+shell); l += step) {
+            if (l < 0)
+              continue;
+            //Skip empty cells, and cells too far away to hold a nearer entry
+            int db = axisGap(b, l*width, width);
+            if (cellSize[cell+l] != 0 && dr*dr + dg*dg + db*db <= worst(found,k,distances,indexes))
+              found = scan(cell+l, rgb, found, k, indexes, distances);
+          }
+        }
+      }
+    }
+    return (indexes == null ? (int)found : found);
+  }
+
+
+  //The squared distance of the worst of the nearest found so far (see
+  //  search for found), or Integer.MAX_VALUE if more are needed
+  private static long worst(long found, int k, int[] distances, int[] indexes)
+  {
+    if (indexes == null)
+      return found >>> 32;
+    return (found < k ? Integer.MAX_VALUE : distances[k-1]);
+  }
+
+
+  //Compare rgb with every entry in cell (see search for found)
+  private long scan(int cell, int rgb, long found, int k, int[] indexes, int[] distances)
+  {
+    int[] pairs = cells[cell];
+    int   n     = 2*cellSize[cell];
+    for (int p = 0; p < n; p += 2) {
+      int  d     = distance(rgb, pairs[p]);
+      int  index = pairs[p+1];
+      if (indexes == null) {
+        long candidate = ((long)d << 32) | index;
+        if (candidate < found)
+          found = candidate;
+        continue;
+      }
+
+      //Insert (d,index) into the sorted k nearest, if it belongs there
+      int at = (int)found;
+      while (at > 0 && (d < distances[at-1] || d == distances[at-1] && index < indexes[at-1]))
+        at--;
+      if (at >= k)
+        continue;
+      int stop = (int)Math.min(found, k-1);
+      System.arraycopy(indexes,   at, indexes,   at+1, stop-at);
+      System.arraycopy(distances, at, distances, at+1, stop-at);
+      indexes  [at] = index;
+      distances[at] = d;
+      if (found < k)
+        found++;
+    }
+    return found;
+  }
+
+
+  //Squared Euclidean distance between two 0xRRGGBB colors
+  private static int distance(int rgb1, int rgb2)
+  {
+    int dr = ((rgb1 >>> 16) & 0xFF) - ((rgb2 >>> 16) & 0xFF);
+    int dg = ((rgb1 >>>  8) & 0xFF) - ((rgb2 >>>  8) & 0xFF);
+    int db = ( rgb1         & 0xFF) - ( rgb2         & 0xFF);
+    return dr*dr + dg*dg + db*db;
+  }
+
+
+  //How far intensity is from the cell [low,low+width-1] (0 if inside it)
+  private static int axisGap(int intensity, int low, int width)
+  {
+    if (intensity < low)
+      return low - intensity;
+    return Math.max(0, intensity - (low+width-1));
+  }
+
+
+  //How far intensity is from the nearest boundary of its cell
+  private static int gapToEdge(int intensity, int width)
+  {
+    int offset = intensity % width;
+    return Math.min(offset, width-1 - offset);
+  }
+
+
+  private int cellOf(int rgb)
+  {
+    int shift = 8 - bits;
+    return ((((rgb >>> 16) & 0xFF) >> shift) * side + (((rgb >>> 8) & 0xFF) >> shift)) * side
+           + ((rgb & 0xFF) >> shift);
+  }
+
+
+  //Put entry i into its cell
+  private void link(int i)
+  {
+    int cell = cellOf(colors[i]);
+    int n = cellSize[cell];
+    if (cells[cell] == null)
+      cells[cell] = new int[4];
+    else if (2*n == cells[cell].length)
+      cells[cell] = Arrays.copyOf(cells[cell], 4*n);
+    cells[cell][2*n]   = colors[i];
+    cells[cell][2*n+1] = i;
+    cellSize[cell] = n+1;
+  }
+
+
+  //Take entry i out of its cell (the cell's last pair takes its place)
+  private void unlink(int i)
+  {
+    int   cell  = cellOf(colors[i]);
+    int[] pairs = cells[cell];
+    int   last  = 2*(--cellSize[cell]);
+    for (int p = 0; p <= last; p += 2)
+      if (pairs[p+1] == i) {
+        pairs[p]   = pairs[last];
+        pairs[p+1] = pairs[last+1];
+        return;
+      }
+  }
+
+
+  //Rebuild the grid with 2^newBits cells on a side
+  private void regrid(int newBits)
+  {
+    bits     = newBits;
+    side     = 1 << bits;
+    cells    = new int[side*side*side][];
+    cellSize = new int[side*side*side];
+    for (int i = 0; i < size; i++)
+      link(i);
+  }
+
+
+  //The grid's resolution for a palette of n entries (it never gets coarser)
+  private int bitsFor(int n)
+  {
+    int b = MIN_BITS;
+    while (b < MAX_BITS && n > (1 << (3*b + 2)))
+      b++;
+    return Math.max(b, bits);
+  }
+
+
+  private void checkIndex(int index)
+  {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException("ColorNames - index(" + index + ") not in range [0," + (size-1) + "]");
+  }
+
+
+
+  //Fields (all instance variables)
+  private String[] names  = new String[16];         // entries, by index
+  private int[]    colors = new int[16];
+  private volatile int size;
+
+  private final HashMap<String,Integer> byName = new HashMap<String,Integer>();
+
+  private int     bits;                             // side = 2^bits cells
+  private int     side;
+  private int[][] cells;                            // (rgb,index) pairs
+  private int[]   cellSize;                         // pairs in each cell
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private static final int  MIN_BITS = 1;
+  private static final int  MAX_BITS = 5;
+  private static final long NONE     = Long.MAX_VALUE; // no entry found yet
+
+  //The CSS/X11 colors shared by every ColorModel unless it is given its own
+  //  palette (adding to it changes what all those models report)
+  public static final ColorNames CSS;
+
+  private static final String[] CSS_NAMES = {
+    "aliceblue",       "F0F8FF", "antiquewhite",  "FAEBD7", "aqua",           "00FFFF",
+    "aquamarine",      "7FFFD4", "azure",         "F0FFFF", "beige",          "F5F5DC",
+    "bisque",          "FFE4C4", "black",         "000000", "blanchedalmond", "FFEBCD",
+    "blue",            "0000FF", "blueviolet",    "8A2BE2", "brown",          "A52A2A",
+    "burlywood",       "DEB887", "cadetblue",     "5F9EA0", "chartreuse",     "7FFF00",
+    "chocolate",       "D2691E", "coral",         "FF7F50", "cornflowerblue", "6495ED",
+    "cornsilk",        "FFF8DC", "crimson",       "DC143C", "cyan",           "00FFFF",
+    "darkblue",        "00008B", "darkcyan",      "008B8B", "darkgoldenrod",  "B8860B",
+    "darkgray",        "A9A9A9", "darkgreen",     "006400", "darkgrey",       "A9A9A9",
+    "darkkhaki",       "BDB76B", "darkmagenta",   "8B008B", "darkolivegreen", "556B2F",
+    "darkorange",      "FF8C00", "darkorchid",    "9932CC", "darkred",        "8B0000",
+    "darksalmon",      "E9967A", "darkseagreen",  "8FBC8F", "darkslateblue",  "483D8B",
+    "darkslategray",   "2F4F4F", "darkslategrey", "2F4F4F", "darkturquoise",  "00CED1",
+    "darkviolet",      "9400D3", "deeppink",      "FF1493", "deepskyblue",    "00BFFF",
+    "dimgray",         "696969", "dimgrey",       "696969", "dodgerblue",     "1E90FF",
+    "firebrick",       "B22222", "floralwhite",   "FFFAF0", "forestgreen",    "228B22",
+    "fuchsia",         "FF00FF", "gainsboro",     "DCDCDC", "ghostwhite",     "F8F8FF",
+    "gold",            "FFD700", "goldenrod",     "DAA520", "gray",           "808080",
+    "green",           "008000", "greenyellow",   "ADFF2F", "grey",           "808080",
+    "honeydew",        "F0FFF0", "hotpink",       "FF69B4", "indianred",      "CD5C5C",
+    "indigo",          "4B0082", "ivory",         "FFFFF0", "khaki",          "F0E68C",
+    "lavender",        "E6E6FA", "lavenderblush", "FFF0F5", "lawngreen",      "7CFC00",
+    "lemonchiffon",    "FFFACD", "lightblue",     "ADD8E6", "lightcoral",     "F08080",
+    "lightcyan",       "E0FFFF", "lightgoldenrodyellow",    "FAFAD2",
+    "lightgray",       "D3D3D3", "lightgreen",    "90EE90", "lightgrey",      "D3D3D3",
+    "lightpink",       "FFB6C1", "lightsalmon",   "FFA07A", "lightseagreen",  "20B2AA",
+    "lightskyblue",    "87CEFA", "lightslategray","778899", "lightslategrey", "778899",
+    "lightsteelblue",  "B0C4DE", "lightyellow",   "FFFFE0", "lime",           "00FF00",
+    "limegreen",       "32CD32", "linen",         "FAF0E6", "magenta",        "FF00FF",
+    "maroon",          "800000", "mediumaquamarine",        "66CDAA",
+    "mediumblue",      "0000CD", "mediumorchid",  "BA55D3", "mediumpurple",   "9370DB",
+    "mediumseagreen",  "3CB371", "mediumslateblue",         "7B68EE",
+    "mediumspringgreen",         "00FA9A", "mediumturquoise", "48D1CC",
+    "mediumvioletred", "C71585", "midnightblue",  "191970", "mintcream",      "F5FFFA",
+    "mistyrose",       "FFE4E1", "moccasin",      "FFE4B5", "navajowhite",    "FFDEAD",
+    "navy",            "000080", "oldlace",       "FDF5E6", "olive",          "808000",
+    "olivedrab",       "6B8E23", "orange",        "FFA500", "orangered",      "FF4500",
+    "orchid",          "DA70D6", "palegoldenrod", "EEE8AA", "palegreen",      "98FB98",
+    "paleturquoise",   "AFEEEE", "palevioletred", "DB7093", "papayawhip",     "FFEFD5",
+    "peachpuff",       "FFDAB9", "peru",          "CD853F", "pink",           "FFC0CB",
+    "plum",            "DDA0DD", "powderblue",    "B0E0E6", "purple",         "800080",
+    "rebeccapurple",   "663399", "red",           "FF0000", "rosybrown",      "BC8F8F",
+    "royalblue",       "4169E1", "saddlebrown",   "8B4513", "salmon",         "FA8072",
+    "sandybrown",      "F4A460", "seagreen",      "2E8B57", "seashell",       "FFF5EE",
+    "sienna",          "A0522D", "silver",        "C0C0C0", "skyblue",        "87CEEB",
+    "slateblue",       "6A5ACD", "slategray",     "708090", "slategrey",      "708090",
+    "snow",            "FFFAFA", "springgreen",   "00FF7F", "steelblue",      "4682B4",
+    "tan",             "D2B48C", "teal",          "008080", "thistle",        "D8BFD8",
+    "tomato",          "FF6347", "turquoise",     "40E0D0", "violet",         "EE82EE",
+    "wheat",           "F5DEB3", "white",         "FFFFFF", "whitesmoke",     "F5F5F5",
+    "yellow",          "FFFF00", "yellowgreen",   "9ACD32"
+  };
+
+  static {
+    CSS = css();
+  }
+}
@@ -0,0 +1,277 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ColorServer
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A ColorServer serves the calculator over HTTP (using the JDK's
+// com.sun.net.httpserver), so other tools can use it without a GUI. Each
+// session (named by the client, in the URL) has its own ColorModel (with
+// no alpha), created by the first change (POST) to the session:
+//
+//   GET    /session/id                               -> its hex
+//   POST   /session/id/set?channel=Red&value=128     -> its hex
+//   POST   /session/id/delta?channel=Red&amount=-10  -> its hex
+//   POST   /session/id/hex?value=FF8000              -> its hex
+//   DELETE /session/id                               (forgets the session)
+//   GET    /stats                                    -> number of sessions
+//
+// where "its hex" is the session's getHex() (e.g., "FF8000", or "FF--00"
+// if green is not entered), as text/plain. Setting a channel behaves like
+// entering its text field (an illegal value makes it not entered); a bad
+// channel (including Alpha) or amount, a missing value, or a query that
+// cannot be decoded is answered with status 400; a GET or DELETE of a
+// session that does not exist with status 404. A request answered with
+// 400 or 404 creates no session. A server holds at most MAX_SESSIONS
+// sessions: a change that would create another is answered with 503
+// (until some are deleted).
+//
+//   The server listens only on the loopback address. Requests run on
+// virtual threads (one per request) when the JDK has them (Java 21+),
+// otherwise on a fixed pool of platform threads; handling a request never
+// blocks on anything but its connection. The sessions are stored in a
+// ConcurrentHashMap and their ColorModels need no locks, so any number of
+// requests (for the same or different sessions) run at the same time.
+// Session models keep a short History (and no listeners), so tens of
+// thousands of sessions need little memory.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: Bad requests answered with 400 (and create no session)
+//  10/16/26: Alpha rejected; GET creates no session; at most MAX_SESSIONS
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+
+public class ColorServer
+{
+
+  //Bind a server to port on the loopback address (0: any free port);
+  //  it does not serve requests until started
+  public ColorServer(int port)
+    throws IOException
+  {
+    //Without TCP_NODELAY, a keep-alive client waits for a delayed ACK
+    //  (~40ms) between a response's headers and its body; the JDK reads
+    //  this property once, so it must be set before any server is created
+    if (System.getProperty("sun.net.httpserver.nodelay") == null)
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+
+    server   = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+    executor = newExecutor();
+    server.setExecutor(executor);
+    server.createContext("/session/", new HttpHandler() {
+      public void handle(HttpExchange exchange) throws IOException {session(exchange);}});
+    server.createContext("/stats", new HttpHandler() {
+      public void handle(HttpExchange exchange) throws IOException {
+        reply(exchange, 200, sessions.size() + " sessions\n");}});
+  }
+
+
+
+  public void start()
+  {server.start();}
+
+
+  //Stop serving (waiting at most delay seconds for requests in progress)
+  public void stop(int delay)
+  {
+    server.stop(delay);
+    executor.shutdown();
+  }
+
+
+  //The port the server is bound to
+  public int getPort()
+  {return server.getAddress().getPort();}
+
+
+  //The model for session id (created if it is new), or null if it is new
+  //  and there are already MAX_SESSIONS sessions
+  public ColorModel getSession(String id)
+  {
+    ColorModel m = sessions.get(id);
+    if (m != null || sessions.size() >= MAX_SESSIONS)
+      return m;
+    return sessions.computeIfAbsent(id, NEW_SESSION);
+  }
+
+
+  public int sessionCount()
+  {return sessions.size();}
+
+
+
+  //Helper methods
+
+  //Handle /session/id and /session/id/operation?query
+  private void session(HttpExchange exchange)
+    throws IOException
+  {
+    String path   = exchange.getRequestURI().getPath();
+    String method = exchange.getRequestMethod();
+    int    slash  = path.indexOf('/', PREFIX.length());
+    String id     = path.substring(PREFIX.length(), slash == -1 ? path.length() : slash);
+    if (id.isEmpty()) {
+      reply(exchange, 404, "No session id\n");
+      return;
+    }
+
+    if (slash == -1) {
+      if (method.equals("GET")) {
+        ColorModel m = sessions.get(id);
+        reply(exchange, m != null ? 200 : 404, (m != null ? m.getHex() : id) + "\n");
+      }
+      else if (method.equals("DELETE"))
+        reply(exchange, sessions.remove(id) != null ? 200 : 404, id + "\n");
+      else
+        reply(exchange, 405, method + " not allowed\n");
+      return;
+    }
+
+    if (!method.equals("POST")) {
+      reply(exchange, 405, method + " not allowed\n");
+      return;
+    }
+    //Check the whole request before getting (maybe creating) its session
+    String  operation = path.substring(slash+1);
+    boolean hex       = operation.equals("hex");
+    boolean set       = operation.equals("set");
+    if (!hex && !set && !operation.equals("delta")) {
+      reply(exchange, 404, "Unknown operation " + operation + "\n");
+      return;
+    }
+    String query = exchange.getRequestURI().getRawQuery();
+    String value, channelName, amountText;
+    try {
+      value       = parameter(query, "value");
+      channelName = parameter(query, "channel");
+      amountText  = parameter(query, "amount");
+    } catch (IllegalArgumentException e) {     //A bad %-escape
+      reply(exchange, 400, "Bad query\n");
+      return;
+    }
+    if ((hex || set) && value == null) {
+      reply(exchange, 400, "No value\n");
+      return;
+    }
+
+    int channel = -1, amount = 0;
+    if (!hex) {
+      channel = Channel.indexOf(String.valueOf(channelName));
+      if (channel < 0 || channel >= PackedColor.ALPHA) {    //Sessions have no alpha
+        reply(exchange, 400, "Bad channel\n");
+        return;
+      }
+    }
+    if (!hex && !set) {
+      try {
+        amount = Integer.parseInt(String.valueOf(amountText));
+      } catch (NumberFormatException e) {
+        reply(exchange, 400, "Bad amount\n");
+        return;
+      }
+    }
+
+    ColorModel m = getSession(id);
+    if (m == null) {
+      reply(exchange, 503, "Too many sessions\n");
+      return;
+    }
+    if (hex)
+      m.changeColorViaHex(value);
+    else if (set)
+      m.changeColorViaTextField(channel, value);
+    else
+      m.changeColor(channel, amount);
+    reply(exchange, 200, m.getHex() + "\n");
+  }
+
+
+  //The (decoded) value of name in query (a=1&b=2), or null if it has none
+  private static String parameter(String query, String name)
+  {
+    if (query == null)
+      return null;
+    for (int at = 0; at < query.length(); ) {
+      int end = query.indexOf('&', at);
+      if (end == -1)
+        end = query.length();
+      if (query.startsWith(name, at) && at + name.length() < end && query.charAt(at + name.length()) == '=')
+        return URLDecoder.decode(query.substring(at + name.length() + 1, end), StandardCharsets.UTF_8);
+      at = end + 1;
+    }
+    return null;
+  }
+
+
+  private static void reply(HttpExchange exchange, int status, String text)
+    throws IOException
+  {
+    byte[] body = text.getBytes(StandardCharsets.US_ASCII);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+
+  //A virtual thread per task if the JDK has them (it is looked up
+  //  reflectively, so this compiles and runs on older JDKs); otherwise a
+  //  fixed pool of platform threads
+  private static ExecutorService newExecutor()
+  {
+    try {
+      return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors());
+    }
+  }
+
+
+
+  //Fields (all instance variables)
+  private final HttpServer      server;
+  private final ExecutorService executor;
+
+  private final ConcurrentHashMap<String,ColorModel> sessions = new ConcurrentHashMap<String,ColorModel>();
+
+  private static final String PREFIX          = "/session/";
+  private static final int    BACKLOG         = 1024;
+  private static final int    SESSION_HISTORY = 16;    //States each session can undo
+
+  //The most sessions a server holds (a few KB each)
+  public static final int MAX_SESSIONS = 100_000;
+
+  private static final Function<String,ColorModel> NEW_SESSION =
+    new Function<String,ColorModel>() {
+      public ColorModel apply(String id) {return new ColorModel(false, SESSION_HISTORY);}};
+}
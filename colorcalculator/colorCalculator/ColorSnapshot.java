@@ -0,0 +1,108 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ColorSnapshot
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A ColorSnapshot is an immutable copy of the state of a ColorModel at
+// one instant (see ColorModel.snapshot). Because a ColorModel stores its
+// whole state in one long (red, green, and blue in its low 32 bits, alpha
+// in bits 32-40; see PackedColor), a snapshot is read in one step: its
+// red, green, blue, and alpha always belong together, even while other
+// threads are changing the model.
+//
+//   A snapshot of a model with an alpha channel includes alpha (which is
+// -1, not entered, in a snapshot of a model without one).
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: Includes alpha
+//  10/16/26: Description: the state is a long (with alpha), not an int
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public final class ColorSnapshot
+{
+
+  //Build a snapshot of a packed state (see PackedColor)
+  public ColorSnapshot(long state)
+  {this.state = state;}
+
+
+
+  //Accessors: the same as ColorModel's (-1 means not entered)
+  public int getRed()
+  {return PackedColor.get(state,PackedColor.RED);}
+
+
+  public int getGreen()
+  {return PackedColor.get(state,PackedColor.GREEN);}
+
+
+  public int getBlue()
+  {return PackedColor.get(state,PackedColor.BLUE);}
+
+
+  public int getAlpha()
+  {return PackedColor.get(state,PackedColor.ALPHA);}
+
+
+  //Return the intensity of channel (a Channel index), or -1
+  public int getColor(int channel)
+  {return PackedColor.get(state,channel);}
+
+
+  //Colors not entered appear as "--" (e.g., "FF--00")
+  public String getHex()
+  {
+    char[] hex = new char[6];
+    HexCodec.encodeState(PackedColor.rgbState(state),hex,0);
+    return new String(hex);
+  }
+
+
+  //Whether all three colors have been entered
+  public boolean isComplete()
+  {return PackedColor.isComplete(state);}
+
+
+  //The red/green/blue state, packed as described in PackedColor
+  public int getState()
+  {return PackedColor.rgbState(state);}
+
+
+  //The whole state, including alpha, packed as described in PackedColor
+  public long getFullState()
+  {return state;}
+
+
+
+  public boolean equals(Object other)
+  {return other instanceof ColorSnapshot && ((ColorSnapshot)other).state == state;}
+
+
+  public int hashCode()
+  {return Long.hashCode(state);}
+
+
+  public String toString()
+  {return "ColorSnapshot[red=" + getRed() + ", green=" + getGreen() +
+          ", blue=" + getBlue() + ", alpha=" + getAlpha() +"]";}
+
+
+
+  //Fields
+  private final long state;
+}
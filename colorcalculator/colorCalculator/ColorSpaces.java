@@ -0,0 +1,365 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ColorSpaces
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   ColorSpaces is a (static) method library that converts the calculator's
+// 0xRRGGBB colors (sRGB) to and from other color spaces, one color at a
+// time or whole arrays at once. Each color in another Space is stored as
+// three floats:
+//
+//     LINEAR: linear-light red, green, blue     (each in [0,1])
+//     XYZ   : CIE X, Y, Z (D65 white; Y in [0,1])
+//     LAB   : CIELAB L* (in [0,100]), a*, b*    (D65 white)
+//     HSV   : hue (degrees, in [0,360)), saturation, value     ([0,1])
+//     HSL   : hue (degrees, in [0,360)), saturation, lightness ([0,1])
+//
+//   Speed: an 8-bit channel has only 256 possible values, so converting it
+// to linear light is a lookup in a precomputed 256-entry table (no pow),
+// and the RGB->XYZ matrix is applied in fixed point (Q15 ints: the
+// rounding error, at most 1e-4, is below the precision of 8-bit input).
+// Converting back to 8 bits uses a 4096-entry table to find a nearby
+// intensity, then corrects it against exact rounding thresholds, so
+// to-and-from conversions of 8-bit colors give back the same color.
+// Arrays longer than PARALLEL_THRESHOLD are split into chunks that are
+// converted in parallel (in the common fork/join pool).
+//
+//   Conversions back to RGB clamp each channel to [0,255], since most
+// colors in the other spaces are outside the sRGB gamut.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.util.stream.IntStream;
+
+
+public final class ColorSpaces
+{
+
+  //The color spaces (besides sRGB) that colors can be converted to/from
+  public enum Space {LINEAR, XYZ, LAB, HSV, HSL}
+
+
+
+  //Static method library: no objects
+  private ColorSpaces()
+  {}
+
+
+
+  //Convert the 0xRRGGBB color rgb into space, storing its three
+  //  components in out[off..off+2]
+  public static void fromRGB(Space space, int rgb, float[] out, int off)
+  {
+    switch (space) {
+      case LINEAR: toLinear(rgb,out,off); break;
+      case XYZ   : toXYZ   (rgb,out,off); break;
+      case LAB   : toLab   (rgb,out,off); break;
+      case HSV   : toHSV   (rgb,out,off); break;
+      case HSL   : toHSL   (rgb,out,off); break;
+    }
+  }
+
+
+  //Return the 0xRRGGBB color whose three components in space are
+  //  in[off..off+2]
+  public static int toRGB(Space space, float[] in, int off)
+  {
+    float c0 = in[off], c1 = in[off+1], c2 = in[off+2];
+    switch (space) {
+      case LINEAR: return fromLinear(c0,c1,c2);
+      case XYZ   : return fromXYZ   (c0,c1,c2);
+      case LAB   : return fromLab   (c0,c1,c2);
+      case HSV   : return fromHSV   (c0,c1,c2);
+      default    : return fromHSL   (c0,c1,c2);
+    }
+  }
+
+
+
+  //Convert rgb[off..off+len-1] into space, storing 3 floats per color in
+  //  dst starting at dstOff
+  public static void fromRGB(final Space space, final int[] rgb, final int off, int len,
+                             final float[] dst, final int dstOff)
+  {
+    if (off < 0 || len < 0 || off + len > rgb.length || dstOff < 0 || dstOff + 3L*len > dst.length)
+      throw new ArrayIndexOutOfBoundsException("ColorSpaces - range not in array");
+
+    if (len < PARALLEL_THRESHOLD) {
+      for (int i = 0; i < len; i++)
+        fromRGB(space, rgb[off+i], dst, dstOff + 3*i);
+      return;
+    }
+
+    final int total = len;
+    IntStream.range(0, chunks(total)).parallel().forEach(c -> {
+      int start = c*CHUNK, stop = Math.min(total, start+CHUNK);
+      for (int i = start; i < stop; i++)
+        fromRGB(space, rgb[off+i], dst, dstOff + 3*i);
+    });
+  }
+
+
+  //Convert len colors in space (3 floats each, in src starting at srcOff)
+  //  into 0xRRGGBB colors in dst[dstOff..dstOff+len-1]
+  public static void toRGB(final Space space, final float[] src, final int srcOff, int len,
+                           final int[] dst, final int dstOff)
+  {
+    if (srcOff < 0 || len < 0 || srcOff + 3L*len > src.length || dstOff < 0 || dstOff + len > dst.length)
+      throw new ArrayIndexOutOfBoundsException("ColorSpaces - range not in array");
+
+    if (len < PARALLEL_THRESHOLD) {
+      for (int i = 0; i < len; i++)
+        dst[dstOff+i] = toRGB(space, src, srcOff + 3*i);
+      return;
+    }
+
+    final int total = len;
+    IntStream.range(0, chunks(total)).parallel().forEach(c -> {
+      int start = c*CHUNK, stop = Math.min(total, start+CHUNK);
+      for (int i = start; i < stop; i++)
+        dst[dstOff+i] = toRGB(space, src, srcOff + 3*i);
+    });
+  }
+
+
+
+  //Return the linear-light value of an 8-bit sRGB intensity
+  public static float linear(int intensity)
+  {return LINEAR[intensity & 0xFF];}
+
+
+  //Return the 8-bit sRGB intensity nearest to a linear-light value
+  //  (clamped to [0,255])
+  public static int intensity(float linear)
+  {
+    if (!(linear > 0))   //Also catches NaN
+      return 0;
+    if (linear >= 1)
+      return 255;
+    int i = TO_SRGB[(int)(linear * (TO_SRGB.length-1))];
+    while (i < 255 && linear >= ROUND_UP[i])
+      i++;
+    while (i > 0 && linear < ROUND_UP[i-1])
+      i--;
+    return i;
+  }
+
+
+
+  //Helper methods: one color, sRGB -> space
+
+  private static void toLinear(int rgb, float[] out, int off)
+  {
+    out[off]   = LINEAR[(rgb >>> 16) & 0xFF];
+    out[off+1] = LINEAR[(rgb >>>  8) & 0xFF];
+    out[off+2] = LINEAR[ rgb         & 0xFF];
+  }
+
+
+  private static void toXYZ(int rgb, float[] out, int off)
+  {
+    int r = LINEAR_Q15[(rgb >>> 16) & 0xFF];
+    int g = LINEAR_Q15[(rgb >>>  8) & 0xFF];
+    int b = LINEAR_Q15[ rgb         & 0xFF];
+    out[off]   = (X_R*r + X_G*g + X_B*b) * Q30;
+    out[off+1] = (Y_R*r + Y_G*g + Y_B*b) * Q30;
+    out[off+2] = (Z_R*r + Z_G*g + Z_B*b) * Q30;
+  }
+
+
+  private static void toLab(int rgb, float[] out, int off)
+  {
+    toXYZ(rgb,out,off);
+    float fx = labF(out[off]   / WHITE_X);
+    float fy = labF(out[off+1]);
+    float fz = labF(out[off+2] / WHITE_Z);
+    out[off]   = 116*fy - 16;
+    out[off+1] = 500*(fx - fy);
+    out[off+2] = 200*(fy - fz);
+  }
+
+
+  private static void toHSV(int rgb, float[] out, int off)
+  {
+    int r = (rgb >>> 16) & 0xFF, g = (rgb >>> 8) & 0xFF, b = rgb & 0xFF;
+    int max = Math.max(r, Math.max(g,b));
+    int min = Math.min(r, Math.min(g,b));
+    out[off]   = hue(r,g,b,max,max-min);
+    out[off+1] = (max == 0 ? 0 : (max-min) / (float)max);
+    out[off+2] = max / 255f;
+  }
+
+
+  private static void toHSL(int rgb, float[] out, int off)
+  {
+    int r = (rgb >>> 16) & 0xFF, g = (rgb >>> 8) & 0xFF, b = rgb & 0xFF;
+    int max = Math.max(r, Math.max(g,b));
+    int min = Math.min(r, Math.min(g,b));
+    int sum = max + min, chroma = max - min;
+    out[off]   = hue(r,g,b,max,chroma);
+    out[off+1] = (chroma == 0 ? 0 : chroma / (float)(sum <= 255 ? sum : 510 - sum));
+    out[off+2] = sum / 510f;
+  }
+
+
+  //Hue (in degrees) of an sRGB color, given its max and chroma (max-min)
+  private static float hue(int r, int g, int b, int max, int chroma)
+  {
+    if (chroma == 0)
+      return 0;
+    float h;
+    if (max == r)
+      h = (g - b) / (float)chroma;
+    else if (max == g)
+      h = 2 + (b - r) / (float)chroma;
+    else
+      h = 4 + (r - g) / (float)chroma;
+    h *= 60;
+    return (h < 0 ? h + 360 : h);
+  }
+
+
+  private static float labF(float t)
+  {return (t > LAB_E ? (float)Math.cbrt(t) : t / (3*LAB_D*LAB_D) + 4f/29);}
+
+
+
+  //Helper methods: one color, space -> sRGB
+
+  private static int fromLinear(float r, float g, float b)
+  {return (intensity(r) << 16) | (intensity(g) << 8) | intensity(b);}
+
+
+  private static int fromXYZ(float x, float y, float z)
+  {
+    return fromLinear( 3.2404542f*x - 1.5371385f*y - 0.4985314f*z,
+                      -0.9692660f*x + 1.8760108f*y + 0.0415560f*z,
+                       0.0556434f*x - 0.2040259f*y + 1.0572252f*z);
+  }
+
+
+  private static int fromLab(float l, float a, float b)
+  {
+    float fy = (l + 16) / 116;
+    float fx = fy + a / 500;
+    float fz = fy - b / 200;
+    return fromXYZ(WHITE_X*labInverseF(fx), labInverseF(fy), WHITE_Z*labInverseF(fz));
+  }
+
+
+  private static float labInverseF(float f)
+  {return (f > LAB_D ? f*f*f : 3*LAB_D*LAB_D*(f - 4f/29));}
+
+
+  private static int fromHSV(float h, float s, float v)
+  {
+    float c = v * s;
+    return fromHueChroma(h, c, v - c);
+  }
+
+
+  private static int fromHSL(float h, float s, float l)
+  {
+    float c = (1 - Math.abs(2*l - 1)) * s;
+    return fromHueChroma(h, c, l - c/2);
+  }
+
+
+  //sRGB color with hue h (degrees), chroma c, and m added to each channel
+  private static int fromHueChroma(float h, float c, float m)
+  {
+    float hp = ((h % 360) + 360) % 360 / 60;
+    float x  = c * (1 - Math.abs(hp % 2 - 1));
+    float r, g, b;
+    switch ((int)hp) {
+      case 0 : r = c; g = x; b = 0; break;
+      case 1 : r = x; g = c; b = 0; break;
+      case 2 : r = 0; g = c; b = x; break;
+      case 3 : r = 0; g = x; b = c; break;
+      case 4 : r = x; g = 0; b = c; break;
+      default: r = c; g = 0; b = x; break;
+    }
+    return (to8(r+m) << 16) | (to8(g+m) << 8) | to8(b+m);
+  }
+
+
+  //A [0,1] value as an 8-bit intensity (clamped; NaN becomes 0)
+  private static int to8(float v)
+  {
+    int i = Math.round(v * 255);
+    return (i < 0 ? 0 : i > 255 ? 255 : i);
+  }
+
+
+  private static int chunks(int len)
+  {return (len + CHUNK - 1) / CHUNK;}
+
+
+  //The exact sRGB transfer function (used only to build the tables)
+  private static double srgbToLinear(double v)
+  {return (v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4));}
+
+
+  private static double linearToSrgb(double v)
+  {return (v <= 0.0031308 ? v * 12.92 : 1.055 * Math.pow(v, 1/2.4) - 0.055);}
+
+
+
+  //Constants
+
+  //Arrays at least this long are converted in parallel, CHUNK at a time
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+  private static final int CHUNK             = 1 << 14;
+
+  //D65 reference white (Y is 1) and CIELAB constants
+  private static final float WHITE_X = 0.95047f;
+  private static final float WHITE_Z = 1.08883f;
+  private static final float LAB_D   = 6f/29;
+  private static final float LAB_E   = LAB_D*LAB_D*LAB_D;
+
+  //The sRGB->XYZ matrix in Q15 fixed point; products of these and Q15
+  //  linear values are Q30 (and always fit in an int)
+  private static final int X_R = q15(0.4124564), X_G = q15(0.3575761), X_B = q15(0.1804375);
+  private static final int Y_R = q15(0.2126729), Y_G = q15(0.7151522), Y_B = q15(0.0721750);
+  private static final int Z_R = q15(0.0193339), Z_G = q15(0.1191920), Z_B = q15(0.9503041);
+  private static final float Q30 = 1f / (1 << 30);
+
+  private static int q15(double v)
+  {return (int)Math.round(v * (1 << 15));}
+
+
+  //LINEAR[i]/LINEAR_Q15[i]: linear-light value of 8-bit intensity i
+  //ROUND_UP[i]: the linear value at which i+1 becomes nearer than i
+  //TO_SRGB[j]: an intensity near linear value j/4095 (ROUND_UP corrects it)
+  private static final float[] LINEAR     = new float[256];
+  private static final int[]   LINEAR_Q15 = new int[256];
+  private static final float[] ROUND_UP   = new float[256];
+  private static final int[]   TO_SRGB    = new int[4096];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      double linear = srgbToLinear(i / 255.0);
+      LINEAR[i]     = (float)linear;
+      LINEAR_Q15[i] = q15(linear);
+      ROUND_UP[i]   = (float)srgbToLinear(Math.min(1, (i + 0.5) / 255.0));
+    }
+    for (int j = 0; j < TO_SRGB.length; j++)
+      TO_SRGB[j] = (int)Math.round(linearToSrgb(j / (double)(TO_SRGB.length-1)) * 255);
+  }
+}
@@ -19,9 +19,9 @@
 // which when pressed call methods in the the Model (sometimes with an
 // appropriate parameter) to implement the semantics of their actions.
 //
-//   For debugging purposes, when each button is pressed it displays
-// some information on the console. These statements can be commented-out
-// in the working program.
+//   For debugging purposes, the Model records each change these buttons
+// and text fields make in its EventLog (the Controller used to display
+// some information on the console for each one, which was too slow).
 //
 //   Note that "no access modifier" means that the method is package
 // friendly: this means the member is public to all other classes in
@@ -31,6 +31,8 @@
 //
 // Program History:
 //   10/10/01: R. Pattis - Operational for 15-100
+//   10/16/26: Debugging output replaced by the Model's EventLog
+//   10/16/26: Buttons/fields refer to a Channel, not a String
 //
 //
 //////////////////////////////////////////////////////////////////////////////
@@ -63,21 +65,18 @@ public class Controller
   
   //Refer to the model (used in all the button methods, to call
   //  methods in the model) 
-  public void addModel(Model m)
+  public void addModel(ColorModel m)
   {model = m;}
 
   
   //Build/Return a Color button: it calls the changeColor method in model
-  JButton getColorButton(final String color, final int amount)
+  JButton getColorButton(final Channel color, final int amount)
   {
 	  JButton b = new JButton();
 	  
 	  b.addActionListener(new ActionListener() {
 		  public void actionPerformed(ActionEvent e)
-		  {
-		     System.out.println("Debug-Controller: " + "Color +10/-10 button pressed (" +
-		                        color+","+amount+")");
-         model.changeColorViaButton(color,amount);}
+		  {model.changeColor(color.index,amount);}
 	  });
 	  
 	  return b;
@@ -86,7 +85,7 @@ public class Controller
      
   //Build/Return a JTextField: for entering Numeric Values: it calls the changeColor
   //  method in model
-  JTextField getColorField(final String color)
+  JTextField getColorField(final Channel color)
   {
 	  final String     errorMessage = "Enter [0,255]";
 	  final JTextField tf           = new JTextField(errorMessage,5);
@@ -94,21 +93,13 @@ public class Controller
 	  tf.addActionListener(new ActionListener()
 	  {
 	    public void actionPerformed(ActionEvent action)
-	    {
-		    System.out.println("Debug-Controller: " + "Color text field activated (" +
-		                        color+",\""+tf.getText()+"\")");
-	      model.changeColorViaTextField(color,tf.getText());
-	    }
+	    {model.changeColorViaTextField(color.index,tf.getText());}
 	  });
 	  
 	  tf.addFocusListener(new FocusAdapter()
 	  {
 	    public void focusLost(FocusEvent event)
-	    {
-		    System.out.println("Debug-Controller: " + "Color text field loses focus (" +
-		                        color+",\""+tf.getText()+"\")");
-	      model.changeColorViaTextField(color,tf.getText());
-	    }
+	    {model.changeColorViaTextField(color.index,tf.getText());}
 	  });
 
     /*
@@ -135,7 +126,7 @@ public class Controller
     
    
     
-  private Model model;  //Controller must tell Model when buttons are pressed
+  private ColorModel model;  //Controller must tell Model when buttons are pressed
 }
 
 
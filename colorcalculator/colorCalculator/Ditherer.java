@@ -0,0 +1,260 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.Ditherer
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A Ditherer reduces an image to a fixed palette (a ColorNames, e.g.,
+// one made by Quantizer), a row at a time, replacing each pixel by the
+// index of a palette entry, so that areas of the image average out to
+// their original colors. Each pixel's red, green, and blue are handled
+// as the calculator handles them: intensities in [0,255], packed into an
+// 0xRRGGBB int (alpha is ignored). Two methods:
+//
+//     FLOYD_STEINBERG: error diffusion: the difference between a pixel
+//                      (plus the error it received) and its palette color
+//                      is passed on to its unvisited neighbors: 7/16 to
+//                      the next pixel in its row, 3/16, 5/16, and 1/16 to
+//                      the three below it. Rows are visited in alternating
+//                      directions (serpentine), which avoids diagonal
+//                      streaks.
+//     ORDERED        : each pixel is offset by a threshold from an 8x8
+//                      Bayer matrix (scaled to the palette's spacing)
+//                      before finding its nearest entry; no state passes
+//                      between pixels, so rows are dithered in parallel.
+//
+//   A Ditherer is an ImagePipeline.Operation: it is given the image's
+// rows in order, a band of whole rows at a time, so any image can be
+// streamed through it. Floyd-Steinberg needs only two rows of errors (the
+// current row's, and the next row's), kept in two int arrays allocated
+// once and swapped after each row; errors are kept in 1/16ths, so all the
+// arithmetic is on ints. dither streams an image file through one,
+// writing the indexes as an indexed image, a band at a time.
+//
+//   Nearest entries are found by the palette (ColorNames.nearest), with
+// the entries of recently seen colors cached in a direct-mapped table.
+//
+//   A Ditherer remembers which row comes next (and its errors), so it is
+// not thread-safe; use one per image (or reset it).
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+
+public class Ditherer implements ImagePipeline.Operation
+{
+
+  //How the palette's colors are mixed
+  public enum Method {FLOYD_STEINBERG, ORDERED}
+
+
+
+  //Dither rows of width pixels to palette (whose entries must not change
+  //  while this Ditherer is used), by method
+  public Ditherer(ColorNames palette, int width, Method method)
+  {
+    if (palette.size() == 0)
+      throw new IllegalArgumentException("Ditherer - palette empty");
+    if (width < 1)
+      throw new IllegalArgumentException("Ditherer - width("+width+") not positive");
+    this.palette = palette;
+    this.width   = width;
+    this.method  = method;
+    colors       = colors(palette);
+    current      = new int[3*(width+2)];   //A pixel of padding at each end
+    next         = new int[3*(width+2)];
+    cachedColor  = new int[CACHE_SIZE];
+    cachedIndex  = new int[CACHE_SIZE];
+    Arrays.fill(cachedColor, -1);          //Not an 0xRRGGBB color
+
+    //Thresholds centered on 0, spanning the distance between palette
+    //  colors along each axis (about 255/(levels per axis - 1))
+    double levels = Math.cbrt(colors.length);
+    double spread = (levels > 2 ? 255 / (levels - 1) : 255);
+    offsets       = new int[64];
+    for (int k = 0; k < 64; k++)
+      offsets[k] = (int)Math.round(((BAYER[k] + 0.5) / 64 - 0.5) * spread);
+  }
+
+
+
+  //Dither the image in file in to palette (at most 256 entries) by
+  //  method, writing the indexes to file out (see
+  //  ImagePipeline.processIndexed), a band at a time
+  public static void dither(File in, File out, ColorNames palette, Method method)
+    throws IOException
+  {
+    Dimension size = ImagePipeline.size(in);
+    ImagePipeline.processIndexed(in, out, new Ditherer(palette, size.width, method), colors(palette));
+  }
+
+
+
+  //Replace each 0xAARRGGBB (or 0xRRGGBB) pixel in pixels[off..off+len-1]
+  //  (whole rows: the image's next len/width rows) by the index of its
+  //  palette entry
+  public void apply(int[] pixels, int off, int len)
+  {
+    if (off < 0 || len < 0 || off + len > pixels.length)
+      throw new ArrayIndexOutOfBoundsException("Ditherer - range not in array");
+    if (len % width != 0)
+      throw new IllegalArgumentException("Ditherer - len("+len+") not whole rows of "+width);
+    int rows = len / width;
+
+    if (method == Method.FLOYD_STEINBERG)
+      for (int r = 0; r < rows; r++)
+        diffuse(pixels, off + r*width, row + r);
+    else if (len < PARALLEL_THRESHOLD)
+      ordered(pixels, off, rows, row, cachedColor, cachedIndex);
+    else {
+      //Bands of rows in parallel, each with its own cache
+      final int band  = Math.max(1, PARALLEL_THRESHOLD / width);
+      final int first = row;
+      IntStream.range(0, (rows + band - 1) / band).parallel().forEach(b -> {
+        int[] color = new int[CACHE_SIZE], index = new int[CACHE_SIZE];
+        Arrays.fill(color, -1);
+        ordered(pixels, off + b*band*width, Math.min(band, rows - b*band), first + b*band, color, index);
+      });
+    }
+    row += rows;
+  }
+
+
+  //Start again at the first row, with no errors
+  public void reset()
+  {
+    row = 0;
+    Arrays.fill(current, 0);
+    Arrays.fill(next, 0);
+  }
+
+
+
+  //Helper methods
+
+  //Floyd-Steinberg on the row at pixels[at..at+width-1] (the image's
+  //  row y)
+  private void diffuse(int[] pixels, int at, int y)
+  {
+    int[] err  = current, below = next;
+    int   dir  = ((y & 1) == 0 ? 1 : -1);            //Serpentine
+    int   step = 3*dir;
+    for (int x = (dir == 1 ? 0 : width-1), n = 0; n < width; n++, x += dir) {
+      int p = pixels[at+x];
+      int e = 3*(x+1);
+      int red   = clamp(((p >>> 16) & 0xFF) + ((err[e]   + 8) >> 4));
+      int green = clamp(((p >>> 8)  & 0xFF) + ((err[e+1] + 8) >> 4));
+      int blue  = clamp(( p         & 0xFF) + ((err[e+2] + 8) >> 4));
+      int index = nearest(red << 16 | green << 8 | blue, cachedColor, cachedIndex);
+      int c     = colors[index];
+      pixels[at+x] = index;
+
+      int dr = red   - ((c >>> 16) & 0xFF);
+      int dg = green - ((c >>> 8)  & 0xFF);
+      int db = blue  - ( c         & 0xFF);
+      err  [e+step]   += 7*dr;  err  [e+step+1] += 7*dg;  err  [e+step+2] += 7*db;
+      below[e-step]   += 3*dr;  below[e-step+1] += 3*dg;  below[e-step+2] += 3*db;
+      below[e]        += 5*dr;  below[e+1]      += 5*dg;  below[e+2]      += 5*db;
+      below[e+step]   +=   dr;  below[e+step+1] +=   dg;  below[e+step+2] +=   db;
+    }
+
+    //The next row's errors become current; clear the old ones for reuse
+    Arrays.fill(err, 0);
+    current = below;
+    next    = err;
+  }
+
+
+  //Ordered dithering of rows rows at pixels[at..], the first being the
+  //  image's row y
+  private void ordered(int[] pixels, int at, int rows, int y, int[] color, int[] index)
+  {
+    for (int r = 0; r < rows; r++, y++) {
+      int base = (y & 7) << 3;
+      for (int x = 0, i = at + r*width; x < width; x++, i++) {
+        int p = pixels[i];
+        int o = offsets[base | (x & 7)];
+        int red   = clamp(((p >>> 16) & 0xFF) + o);
+        int green = clamp(((p >>> 8)  & 0xFF) + o);
+        int blue  = clamp(( p         & 0xFF) + o);
+        pixels[i] = nearest(red << 16 | green << 8 | blue, color, index);
+      }
+    }
+  }
+
+
+  //The index of rgb's nearest palette entry, through the cache
+  private int nearest(int rgb, int[] color, int[] index)
+  {
+    int slot = (rgb * 0x9E3779B9) >>> (32 - CACHE_BITS);
+    if (color[slot] != rgb) {
+      color[slot] = rgb;
+      index[slot] = palette.nearest(rgb);
+    }
+    return index[slot];
+  }
+
+
+  private static int clamp(int intensity)
+  {return (intensity < 0 ? 0 : intensity > 255 ? 255 : intensity);}
+
+
+  private static int[] colors(ColorNames palette)
+  {
+    int[] colors = new int[palette.size()];
+    for (int i = 0; i < colors.length; i++)
+      colors[i] = palette.getColor(i);
+    return colors;
+  }
+
+
+
+  //Fields (all instance variables)
+  private final ColorNames palette;
+  private final int[]      colors;                     //palette's colors
+  private final int        width;
+  private final Method     method;
+  private final int[]      offsets;                    //Bayer thresholds
+  private final int[]      cachedColor, cachedIndex;   //Nearest-entry cache
+  private int[]            current, next;              //Errors (in 1/16ths):
+                                                       //  3 ints per pixel
+  private int              row;                        //The next row
+
+  //Rows with at least this many pixels are dithered (ORDERED) in parallel
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  private static final int CACHE_BITS = 14;
+  private static final int CACHE_SIZE = 1 << CACHE_BITS;
+
+  //The 8x8 Bayer matrix (row major): each of 0..63 once, spread evenly
+  private static final int[] BAYER = {
+     0, 32,  8, 40,  2, 34, 10, 42,
+    48, 16, 56, 24, 50, 18, 58, 26,
+    12, 44,  4, 36, 14, 46,  6, 38,
+    60, 28, 52, 20, 62, 30, 54, 22,
+     3, 35, 11, 43,  1, 33,  9, 41,
+    51, 19, 59, 27, 49, 17, 57, 25,
+    15, 47,  7, 39, 13, 45,  5, 37,
+    63, 31, 55, 23, 61, 29, 53, 21
+  };
+}
@@ -0,0 +1,183 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.EventLog
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   An EventLog records each change to a ColorModel (replacing the console
+// output the Model and Controller used to print for debugging) as a
+// fixed-size binary record in a ring buffer that is allocated once, when
+// the log is constructed. Recording an event formats nothing and
+// allocates nothing: it claims the next slot and stores three longs. When
+// the buffer is full, each new record overwrites the oldest one.
+//
+//   Each record stores
+//     the time (System.nanoTime) of the change
+//     its kind (TEXT, BUTTON, HEX, HISTORY, STATE) and channel (a Channel
+//                   index, or ALL)
+//     its argument (entered intensity, +/- amount, or 0xRRGGBB value;
+//                   for an illegal entry, a negative ChannelParser
+//                   status or -1 for an illegal hex value; for HISTORY,
+//                   the (low 32 bits of the) History step moved to; for
+//                   STATE, 0)
+//     the model's resulting (packed, with alpha) state
+//
+//   A log can be switched on/off at any time, and dumped (oldest record
+// first) to a file, where each record takes RECORD_BYTES bytes (big
+// endian): long time, short kind, short channel, int argument, long state.
+// A record being written while the log is dumped may appear half-written.
+//
+//   ColorModels record to the shared log, DEFAULT, unless told otherwise.
+// It is off unless the system property colorCalculator.eventLog is true.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (replaces System.out debugging output)
+//  10/16/26: HISTORY events (undo/redo/jumpTo)
+//  10/16/26: STATE (journaled states of other threads' changes)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class EventLog
+{
+
+  //Build a log holding the last capacity records (rounded up to a power
+  //  of 2); it starts enabled or not
+  public EventLog(int capacity, boolean enabled)
+  {
+    if (capacity < 1 || capacity > (1 << 26))
+      throw new IllegalArgumentException("EventLog - capacity("+capacity+") not in range [1,"+(1 << 26)+"]");
+    int slots = Integer.highestOneBit(capacity);
+    if (slots < capacity)
+      slots <<= 1;
+
+    records      = new long[3*slots];
+    mask         = slots - 1;
+    this.enabled = enabled;
+  }
+
+
+
+  //Turn recording on/off (callable from any thread, at any time)
+  public void setEnabled(boolean enabled)
+  {this.enabled = enabled;}
+
+
+  public boolean isEnabled()
+  {return enabled;}
+
+
+
+  //Record one event (if enabled); see the class comment for the meaning
+  //  of each parameter
+  public void record(int kind, int channel, int argument, long state)
+  {
+    if (!enabled)
+      return;
+    int slot = 3 * (int)(next.getAndIncrement() & mask);
+    records[slot  ] = System.nanoTime();
+    records[slot+1] = ((long)kind << 48) | ((long)(channel & 0xFFFF) << 32) | (argument & 0xFFFFFFFFL);
+    records[slot+2] = state;
+  }
+
+
+
+  //Return the number of records in the log (at most its capacity)
+  public int size()
+  {return (int)Math.min(next.get(), mask+1L);}
+
+
+  //Return the number of records ever recorded (including overwritten ones)
+  public long recorded()
+  {return next.get();}
+
+
+  //Forget all records
+  public void clear()
+  {next.set(0);}
+
+
+
+  //Write all the records in the log (oldest first) to file, replacing
+  //  anything in it; returns the number of records written
+  public int dump(File file)
+    throws IOException
+  {
+    long end   = next.get();
+    long start = Math.max(0, end - (mask+1L));
+
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024);
+    try (FileChannel out = new FileOutputStream(file).getChannel()) {
+      for (long seq = start; seq < end; seq++) {
+        int slot = 3 * (int)(seq & mask);
+        long info = records[slot+1];
+        buffer.putLong (records[slot]);
+        buffer.putShort((short)(info >>> 48));
+        buffer.putShort((short)(info >>> 32));
+        buffer.putInt  ((int)info);
+        buffer.putLong (records[slot+2]);
+        if (!buffer.hasRemaining())
+          drain(buffer,out);
+      }
+      drain(buffer,out);
+    }
+    return (int)(end - start);
+  }
+
+
+
+  //Helper method
+  private static void drain(ByteBuffer buffer, FileChannel out)
+    throws IOException
+  {
+    buffer.flip();
+    while (buffer.hasRemaining())
+      out.write(buffer);
+    buffer.clear();
+  }
+
+
+
+  //Kinds of events and the channel for events that change all channels
+  public static final int TEXT    = 1;  //changeColorViaTextField
+  public static final int BUTTON  = 2;  //changeColorViaButton
+  public static final int HEX     = 3;  //changeColorViaHex
+  public static final int HISTORY = 4;  //undo, redo, jumpTo
+  public static final int STATE   = 5;  //A state recorded for other threads'
+                                        //  change(s) (see ColorModel)
+
+  public static final int ALL     = 0xFF;
+
+  public static final int RECORD_BYTES = 24;
+
+  //The log ColorModels record to (unless told otherwise)
+  public static final EventLog DEFAULT =
+    new EventLog(1 << 16, Boolean.getBoolean("colorCalculator.eventLog"));
+
+
+
+  //Instance Variables
+  private final long[]     records;             //3 longs per record
+  private final int        mask;                //slots-1 (slots is a power of 2)
+  private final AtomicLong next = new AtomicLong();
+  private volatile boolean enabled;
+}
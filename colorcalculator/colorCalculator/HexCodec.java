@@ -0,0 +1,221 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.HexCodec
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   HexCodec is a (static) method library that converts colors between
+// 0xRRGGBB ints and their six hexidecimal digits "RRGGBB" (the format
+// displayed by the View). Encoding looks up both digits of an intensity in
+// one precomputed 256-entry table, and can write into a caller-supplied
+// char[], StringBuilder/Appendable or ByteBuffer, so it never allocates.
+// Decoding accepts "RRGGBB" or "#RRGGBB" (either case) and returns -1
+// (instead of throwing an exception) for anything else.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (replaces Model.gh)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+public final class HexCodec
+{
+
+  //Static method library: no objects
+  private HexCodec()
+  {}
+
+
+
+  //Write the 6 hex digits of rgb into dst[off..off+5]
+  public static void encode(int rgb, char[] dst, int off)
+  {
+    int r = ((rgb >>> 16) & 0xFF) << 1;
+    int g = ((rgb >>>  8) & 0xFF) << 1;
+    int b = ( rgb         & 0xFF) << 1;
+    dst[off  ] = PAIRS[r];   dst[off+1] = PAIRS[r+1];
+    dst[off+2] = PAIRS[g];   dst[off+3] = PAIRS[g+1];
+    dst[off+4] = PAIRS[b];   dst[off+5] = PAIRS[b+1];
+  }
+
+
+  //Write the 6 hex digits of rgb (as ASCII bytes) into dst[off..off+5]
+  public static void encode(int rgb, byte[] dst, int off)
+  {
+    int r = ((rgb >>> 16) & 0xFF) << 1;
+    int g = ((rgb >>>  8) & 0xFF) << 1;
+    int b = ( rgb         & 0xFF) << 1;
+    dst[off  ] = BYTE_PAIRS[r];   dst[off+1] = BYTE_PAIRS[r+1];
+    dst[off+2] = BYTE_PAIRS[g];   dst[off+3] = BYTE_PAIRS[g+1];
+    dst[off+4] = BYTE_PAIRS[b];   dst[off+5] = BYTE_PAIRS[b+1];
+  }
+
+
+  //Put the 6 hex digits of rgb (as ASCII bytes) at dst's position,
+  //  advancing it by 6
+  public static void encode(int rgb, ByteBuffer dst)
+  {
+    int r = ((rgb >>> 16) & 0xFF) << 1;
+    int g = ((rgb >>>  8) & 0xFF) << 1;
+    int b = ( rgb         & 0xFF) << 1;
+    dst.put(BYTE_PAIRS[r]).put(BYTE_PAIRS[r+1])
+       .put(BYTE_PAIRS[g]).put(BYTE_PAIRS[g+1])
+       .put(BYTE_PAIRS[b]).put(BYTE_PAIRS[b+1]);
+  }
+
+
+  //Append the 6 hex digits of rgb to sb
+  public static StringBuilder encode(int rgb, StringBuilder sb)
+  {
+    int r = ((rgb >>> 16) & 0xFF) << 1;
+    int g = ((rgb >>>  8) & 0xFF) << 1;
+    int b = ( rgb         & 0xFF) << 1;
+    return sb.append(PAIRS[r]).append(PAIRS[r+1])
+             .append(PAIRS[g]).append(PAIRS[g+1])
+             .append(PAIRS[b]).append(PAIRS[b+1]);
+  }
+
+
+  //Append the 6 hex digits of rgb to a (e.g., a Writer)
+  public static Appendable encode(int rgb, Appendable a)
+    throws IOException
+  {
+    int r = ((rgb >>> 16) & 0xFF) << 1;
+    int g = ((rgb >>>  8) & 0xFF) << 1;
+    int b = ( rgb         & 0xFF) << 1;
+    return a.append(PAIRS[r]).append(PAIRS[r+1])
+            .append(PAIRS[g]).append(PAIRS[g+1])
+            .append(PAIRS[b]).append(PAIRS[b+1]);
+  }
+
+
+  //Return the 6 hex digits of rgb as a String
+  public static String toString(int rgb)
+  {
+    char[] hex = new char[6];
+    encode(rgb,hex,0);
+    return new String(hex);
+  }
+
+
+  //Write the 6 hex digits of a packed Model state (see PackedColor) into
+  //  dst[off..off+5]; channels not entered are written as "--"
+  public static void encodeState(int state, char[] dst, int off)
+  {
+    encode(state,dst,off);
+    for (int channel = PackedColor.RED; channel <= PackedColor.BLUE; channel++)
+      if (!PackedColor.isValid(state,channel))
+        dst[off + 2*channel] = dst[off + 2*channel + 1] = '-';
+  }
+
+
+
+  //Return the 0xRRGGBB value of "RRGGBB" or "#RRGGBB" (digits in either
+  //  case), or -1 if hex is anything else
+  public static int decode(CharSequence hex)
+  {
+    int length = hex.length();
+    int start  = (length == 7 && hex.charAt(0) == '#' ? 1 : 0);
+    if (length - start != 6)
+      return -1;
+
+    int rgb = 0;
+    for (int i = start; i < length; i++) {
+      char c = hex.charAt(i);
+      int  d = (c < 128 ? DIGIT[c] : -1);
+      if (d < 0)
+        return -1;
+      rgb = (rgb << 4) | d;
+    }
+    return rgb;
+  }
+
+
+  //Return the 0xRRGGBB value of the 6 hex digits at src[off..off+5],
+  //  or -1 if any of them is not a hex digit
+  public static int decode(char[] src, int off)
+  {
+    int rgb = 0;
+    for (int i = off; i < off+6; i++) {
+      char c = src[i];
+      int  d = (c < 128 ? DIGIT[c] : -1);
+      if (d < 0)
+        return -1;
+      rgb = (rgb << 4) | d;
+    }
+    return rgb;
+  }
+
+
+  //Return the 0xRRGGBB value of the 6 hex digits (ASCII bytes) at
+  //  src[off..off+5], or -1 if any of them is not a hex digit
+  public static int decode(byte[] src, int off)
+  {
+    int rgb = 0;
+    for (int i = off; i < off+6; i++) {
+      int d = DIGIT[src[i] & 0x7F];
+      if (src[i] < 0 || d < 0)
+        return -1;
+      rgb = (rgb << 4) | d;
+    }
+    return rgb;
+  }
+
+
+  //Return the 0xRRGGBB value of the 6 hex digits (ASCII bytes) at
+  //  src[index..index+5] (src's position is unchanged), or -1 if any
+  //  of them is not a hex digit
+  public static int decode(ByteBuffer src, int index)
+  {
+    int rgb = 0;
+    for (int i = index; i < index+6; i++) {
+      byte c = src.get(i);
+      int  d = DIGIT[c & 0x7F];
+      if (c < 0 || d < 0)
+        return -1;
+      rgb = (rgb << 4) | d;
+    }
+    return rgb;
+  }
+
+
+
+  //Tables (computed once, when the class is loaded)
+  //  PAIRS/BYTE_PAIRS: both hex digits of intensity i are at [2i] and [2i+1]
+  //  DIGIT: value of each ASCII hex digit (-1 for all other characters)
+  private static final char[] PAIRS      = new char[512];
+  private static final byte[] BYTE_PAIRS = new byte[512];
+  private static final byte[] DIGIT      = new byte[128];
+
+  static {
+    String hexDigits = "0123456789ABCDEF";
+    for (int i = 0; i < 256; i++) {
+      PAIRS[2*i]   = hexDigits.charAt(i/16);
+      PAIRS[2*i+1] = hexDigits.charAt(i%16);
+      BYTE_PAIRS[2*i]   = (byte)PAIRS[2*i];
+      BYTE_PAIRS[2*i+1] = (byte)PAIRS[2*i+1];
+    }
+
+    Arrays.fill(DIGIT,(byte)-1);
+    for (int i = 0; i < 16; i++) {
+      DIGIT[hexDigits.charAt(i)]                        = (byte)i;
+      DIGIT[Character.toLowerCase(hexDigits.charAt(i))] = (byte)i;
+    }
+  }
+}
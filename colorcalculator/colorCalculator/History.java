@@ -0,0 +1,162 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.History
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A History stores the last states (packed as described in PackedColor)
+// of a ColorModel, so its changes can be undone and redone. The states
+// are stored in a ring buffer of longs, allocated once, when the History
+// is constructed: recording a state stores one long, so a History never
+// grows, no matter how many changes are recorded; when it is full, each
+// new state overwrites the oldest one.
+//
+//   Each recorded state is a step, numbered 0, 1, 2, ... in the order it
+// was recorded (numbers keep increasing as old steps are overwritten).
+// The current step is normally the newest one; undo and redo move back
+// and forth from it, and jumpTo moves straight to any step still stored,
+// each in constant time. Recording a state after undoing forgets the
+// steps that could have been redone (just like in an editor). Recording
+// the current state again does nothing.
+//
+//   A History takes no locks: it must be changed (reset, record, undo,
+// redo, jumpTo) by one thread at a time, which its ColorModel sees to
+// (see ColorModel), so recording a change costs no more than storing a
+// long. Any thread can read it: the step numbers are volatile.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: No locks (changed by one thread at a time; see ColorModel)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public class History
+{
+
+  //Build a history holding the last capacity states (rounded up to a
+  //  power of 2); its only step (0) is the EMPTY state
+  public History(int capacity)
+  {
+    if (capacity < 2 || capacity > (1 << 26))
+      throw new IllegalArgumentException("History - capacity("+capacity+") not in range [2,"+(1 << 26)+"]");
+    int slots = Integer.highestOneBit(capacity);
+    if (slots < capacity)
+      slots <<= 1;
+
+    states = new long[slots];
+    mask   = slots - 1;
+  }
+
+
+
+  //Forget every step; state becomes the only one (step 0)
+  public void reset(long state)
+  {
+    oldest = current = newest = 0;
+    states[0] = state;
+  }
+
+
+  //Record state as the step after the current one (forgetting any newer
+  //  ones); return its step number
+  public long record(long state)
+  {
+    if (states[(int)(current & mask)] == state)
+      return current;
+    newest = ++current;
+    states[(int)(current & mask)] = state;
+    if (newest - oldest > mask)
+      oldest = newest - mask;
+    return current;
+  }
+
+
+
+  //Move back one step and return its state, or NONE if the current step
+  //  is the oldest one
+  public long undo()
+  {return (current == oldest ? NONE : states[(int)(--current & mask)]);}
+
+
+  //Move forward one step and return its state, or NONE if the current
+  //  step is the newest one
+  public long redo()
+  {return (current == newest ? NONE : states[(int)(++current & mask)]);}
+
+
+  //Move to step and return its state, or NONE (not moving) if step is
+  //  not stored (see getOldestStep and getNewestStep)
+  public long jumpTo(long step)
+  {
+    if (step < oldest || step > newest)
+      return NONE;
+    current = step;
+    return states[(int)(step & mask)];
+  }
+
+
+
+  //Accessors
+
+  public long getCurrentStep()
+  {return current;}
+
+
+  public long getOldestStep()
+  {return oldest;}
+
+
+  public long getNewestStep()
+  {return newest;}
+
+
+  public boolean canUndo()
+  {return current > oldest;}
+
+
+  public boolean canRedo()
+  {return current < newest;}
+
+
+  //Return the state at step, or NONE if step is not stored
+  public long getState(long step)
+  {return (step < oldest || step > newest ? NONE : states[(int)(step & mask)]);}
+
+
+  //The current state
+  public long getState()
+  {return states[(int)(current & mask)];}
+
+
+  //The most steps that can be stored
+  public int capacity()
+  {return mask+1;}
+
+
+
+  //Returned instead of a state, when there is none (no packed state is
+  //  negative)
+  public static final long NONE = -1;
+
+  //The capacity of each ColorModel's History (unless it is given another)
+  public static final int DEFAULT_CAPACITY = 1 << 10;
+
+
+
+  //Instance Variables
+  private final long[] states;          //States by step (modulo capacity)
+  private final int    mask;            //capacity-1 (capacity is a power of 2)
+  private volatile long oldest, current, newest; //Step numbers (states[0] is EMPTY)
+}
@@ -0,0 +1,216 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ImageAdjuster
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   ImageAdjuster is a (static) method library that applies the
+// calculator's +/- buttons to every pixel of an image: each channel's
+// intensity is changed by its own delta, either modulo 256 (WRAP: exactly
+// what the buttons, ModularCounter.update, and PackedColor.update do) or
+// clamped to [0,255] (SATURATE). Alpha is never changed.
+//
+//   Speed: a channel has only 256 possible intensities, so each delta is
+// turned into a 256-entry lookup table (of intensities already shifted
+// into place), and a pixel is adjusted with three lookups and no
+// branches. For images stored as packed ints (TYPE_INT_RGB, TYPE_INT_ARGB,
+// and any other image whose raster is a DataBufferInt with red, green, and
+// blue in bits 23-16, 15-8, and 7-0), the pixels are adjusted directly in
+// the raster's array. The image is split into tiles (bands of whole rows,
+// PARALLEL_THRESHOLD pixels or so each, so each tile is a run of the
+// array) that are adjusted in parallel (in the common fork/join pool).
+// Other images (e.g., TYPE_3BYTE_BGR, or premultiplied alpha) fall back to
+// reading each tile's rows with getRGB and writing them back with setRGB,
+// which is slower but works for any image.
+//
+//   Note that writing a raster's array directly stops Java2D from caching
+// the image in video memory (it is still drawn correctly).
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: isPackedRGB shared with ColorHistogram
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.stream.IntStream;
+
+
+public final class ImageAdjuster
+{
+
+  //How an intensity that goes past 0 or 255 is changed
+  public enum Mode {WRAP, SATURATE}
+
+
+
+  //Static method library: no objects
+  private ImageAdjuster()
+  {}
+
+
+
+  //Change channel (a Channel index: RED, GREEN, or BLUE) of every pixel in
+  //  image by delta (like pressing a +/- button on every pixel)
+  public static void adjust(BufferedImage image, int channel, int delta, Mode mode)
+  {
+    if (channel < PackedColor.RED || channel > PackedColor.BLUE)
+      throw new IllegalArgumentException("ImageAdjuster - channel("+channel+") not RED, GREEN, or BLUE");
+    adjust(image, channel == PackedColor.RED   ? delta : 0,
+                  channel == PackedColor.GREEN ? delta : 0,
+                  channel == PackedColor.BLUE  ? delta : 0, mode);
+  }
+
+
+  //Change the red, green, and blue of every pixel in image by red, green,
+  //  and blue
+  public static void adjust(final BufferedImage image, int red, int green, int blue, Mode mode)
+  {
+    if (red == 0 && green == 0 && blue == 0)
+      return;
+    final int[][] tables = tables(red, green, blue, mode);
+    final int     width  = image.getWidth();
+    final int     height = image.getHeight();
+    final int     rows   = Math.max(1, TILE_PIXELS / width);   //Rows per tile
+
+    WritableRaster raster = image.getRaster();
+    if (isPackedRGB(image)) {
+      SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel)raster.getSampleModel();
+      final int[] data   = ((DataBufferInt)raster.getDataBuffer()).getData();
+      final int   stride = sm.getScanlineStride();
+      final int   base   = raster.getDataBuffer().getOffset()
+                           + sm.getOffset(raster.getMinX() - raster.getSampleModelTranslateX(),
+                                          raster.getMinY() - raster.getSampleModelTranslateY());
+      if (stride == width)      //No gaps between rows: tiles are runs of the array
+        adjust(data, base, width*height, tables);
+      else
+        tiles(height, rows, (long)width*height, true, (y, stop) -> {
+          for (; y < stop; y++)
+            adjust(data, base + y*stride, width, tables);
+        });
+      return;
+    }
+
+    //Fallback: through (non-premultiplied) 0xAARRGGBB pixels; an indexed
+    //  image's color model caches lookups (not thread-safe), so it is done
+    //  one tile at a time
+    tiles(height, rows, (long)width*height, !(image.getColorModel() instanceof IndexColorModel), (y, stop) -> {
+      int[] argb = image.getRGB(0, y, width, stop-y, null, 0, width);
+      adjust(argb, 0, argb.length, tables);
+      image.setRGB(0, y, width, stop-y, argb, 0, width);
+    });
+  }
+
+
+  //Change the red, green, and blue of the 0xAARRGGBB (or 0xRRGGBB) pixels
+  //  in pixels[off..off+len-1] by red, green, and blue
+  public static void adjust(int[] pixels, int off, int len, int red, int green, int blue, Mode mode)
+  {
+    if (off < 0 || len < 0 || off + len > pixels.length)
+      throw new ArrayIndexOutOfBoundsException("ImageAdjuster - range not in array");
+    adjust(pixels, off, len, tables(red, green, blue, mode));
+  }
+
+
+
+  //Helper methods
+
+  //Whether image's pixels are ints with red/green/blue in the usual bits
+  //  (and alpha, if any, not premultiplied); used by ColorHistogram too
+  static boolean isPackedRGB(BufferedImage image)
+  {
+    WritableRaster raster = image.getRaster();
+    SampleModel    sm     = raster.getSampleModel();
+    if (raster.getDataBuffer().getDataType() != DataBuffer.TYPE_INT || raster.getDataBuffer().getNumBanks() != 1
+        || !(sm instanceof SinglePixelPackedSampleModel) || image.isAlphaPremultiplied())
+      return false;
+    int[] masks = ((SinglePixelPackedSampleModel)sm).getBitMasks();
+    return (masks.length >= 3 && masks[0] == 0xFF0000 && masks[1] == 0xFF00 && masks[2] == 0xFF);
+  }
+
+
+  //Adjust pixels[off..off+len-1] through tables, in parallel if there
+  //  are enough pixels
+  private static void adjust(final int[] pixels, final int off, final int len, final int[][] tables)
+  {
+    tiles(len, TILE_PIXELS, len, true, (start, stop) -> adjustRun(pixels, off+start, stop-start, tables));
+  }
+
+
+  private static void adjustRun(int[] pixels, int off, int len, int[][] tables)
+  {
+    int[] red = tables[0], green = tables[1], blue = tables[2];
+    for (int i = off, end = off+len; i < end; i++) {
+      int p = pixels[i];
+      pixels[i] = (p & 0xFF000000) | red[(p >>> 16) & 0xFF] | green[(p >>> 8) & 0xFF] | blue[p & 0xFF];
+    }
+  }
+
+
+  //Run tile on [0,n) in pieces of size (the last may be smaller): in
+  //  parallel if parallel and there are at least PARALLEL_THRESHOLD pixels
+  private static void tiles(final int n, final int size, long pixels, boolean parallel, final Tile tile)
+  {
+    final int count = (n + size - 1) / size;
+    if (!parallel || pixels < PARALLEL_THRESHOLD || count == 1) {
+      for (int t = 0; t < count; t++)
+        tile.run(t*size, Math.min(n, (t+1)*size));
+      return;
+    }
+    IntStream.range(0, count).parallel().forEach(t -> tile.run(t*size, Math.min(n, (t+1)*size)));
+  }
+
+
+  private interface Tile
+  {void run(int start, int stop);}
+
+
+  //The red, green, and blue lookup tables: each maps an intensity to
+  //  its adjusted intensity, shifted into its place in 0xRRGGBB
+  private static int[][] tables(int red, int green, int blue, Mode mode)
+  {return new int[][] {table(red, 16, mode), table(green, 8, mode), table(blue, 0, mode)};}
+
+
+  private static int[] table(int delta, int shift, Mode mode)
+  {
+    int[] table = new int[256];
+    for (int v = 0; v < 256; v++) {
+      int now;
+      if (mode == Mode.WRAP)
+        now = (v + delta) & 0xFF;   //As PackedColor.update: modulo 256
+      else {
+        long sum = (long)v + delta;
+        now = (int)(sum < 0 ? 0 : sum > 255 ? 255 : sum);
+      }
+      table[v] = now << shift;
+    }
+    return table;
+  }
+
+
+
+  //Constants
+
+  //Images with at least this many pixels are adjusted in parallel, in
+  //  tiles of about TILE_PIXELS pixels
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+  private static final int TILE_PIXELS        = 1 << 16;
+}
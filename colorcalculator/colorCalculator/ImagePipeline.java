@@ -0,0 +1,488 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.ImagePipeline
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   ImagePipeline is a (static) method library that applies the
+// calculator's channel operations (setting a channel, as the text fields
+// do, or changing it by a delta, as the +/- buttons do) to an image file
+// too large to hold in memory, writing the result to another file. The
+// image is never read as a whole: it is streamed through one band of
+// rows at a time (read with an ImageReadParam source region, into one
+// reused band image), so the memory needed depends only on the image's
+// width and the band's height, not on the image's size.
+//
+//   The result is written one band at a time, as it is computed:
+//     *.ppm (or *.pnm): as a binary PPM (P6), written sequentially
+//     other formats   : through an ImageWriter that can write an empty
+//                       image and then replace its pixels (e.g., the
+//                       JDK's uncompressed TIFF); formats whose writers
+//                       need the whole image at once (e.g., PNG, JPEG) are
+//                       rejected, since writing them would need it all
+//   A PPM has no alpha, so alpha is dropped from its output. An indexed
+// result (processIndexed) is written as 8-bit indexes with the palette
+// (e.g., an indexed TIFF), or to a PPM as the palette's colors.
+//
+//   main checks the pipeline: it streams small images (with and without
+// alpha) into TIFFs and reads them back, checking every pixel.
+//
+//   Readers differ in how well they read regions: tiled or stripped
+// formats (e.g., TIFF) seek directly to a band; others (e.g., PNG) decode
+// the image from its start to reach each band, so streaming them takes
+// longer (but no more memory).
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: scan (streams an image through an operation, writing nothing)
+//  10/16/26: processIndexed (writes palette indexes), and size
+//  10/16/26: Fixed writing images with alpha through replacePixels
+//  10/16/26: main checks streaming into TIFFs (with and without alpha)
+//  10/16/26: A writer that fails while starting leaves nothing open (and
+//            no partial file)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+
+public final class ImagePipeline
+{
+
+  //An operation on a run of 0xAARRGGBB pixels (changed in place)
+  public interface Operation
+  {void apply(int[] pixels, int off, int len);}
+
+
+
+  //Static method library: no objects
+  private ImagePipeline()
+  {}
+
+
+
+  //The operation of the +/- buttons: change the red, green, and blue of
+  //  each pixel by red, green, and blue (see ImageAdjuster)
+  public static Operation adjust(final int red, final int green, final int blue, final ImageAdjuster.Mode mode)
+  {
+    return (pixels, off, len) -> ImageAdjuster.adjust(pixels, off, len, red, green, blue, mode);
+  }
+
+
+  //The operation of a text field: set channel (a Channel index: RED,
+  //  GREEN, or BLUE) of each pixel to intensity (in [0,255])
+  public static Operation set(int channel, int intensity)
+  {
+    if (channel < PackedColor.RED || channel > PackedColor.BLUE)
+      throw new IllegalArgumentException("ImagePipeline - channel("+channel+") not RED, GREEN, or BLUE");
+    if (intensity < 0 || intensity > 255)
+      throw new IllegalArgumentException("ImagePipeline - intensity("+intensity+") not in range [0,255]");
+    final int shift = 16 - 8*channel;
+    final int keep  = ~(0xFF << shift);
+    final int value = intensity << shift;
+    return (pixels, off, len) -> {
+      for (int i = off, end = off+len; i < end; i++)
+        pixels[i] = (pixels[i] & keep) | value;
+    };
+  }
+
+
+  //Do first, then second
+  public static Operation then(final Operation first, final Operation second)
+  {
+    return (pixels, off, len) -> {
+      first .apply(pixels, off, len);
+      second.apply(pixels, off, len);
+    };
+  }
+
+
+
+  //Apply operation to the image in file in, writing the result to file
+  //  out (whose format is chosen by its suffix), in bands of about
+  //  BAND_PIXELS pixels
+  public static void process(File in, File out, Operation operation)
+    throws IOException
+  {process(in, out, operation, 0);}
+
+
+  //As above, in bands of bandRows rows (0: about BAND_PIXELS pixels)
+  public static void process(File in, File out, Operation operation, int bandRows)
+    throws IOException
+  {stream(in, out, operation, bandRows, null);}
+
+
+  //Apply operation to the image in file in, writing the result to file
+  //  out as an indexed image: operation must replace each pixel by an
+  //  index into palette (at most 256 0xRRGGBB colors); a PPM gets the
+  //  indexed colors instead
+  public static void processIndexed(File in, File out, Operation operation, int[] palette)
+    throws IOException
+  {
+    if (palette.length < 1 || palette.length > 256)
+      throw new IllegalArgumentException("ImagePipeline - palette size("+palette.length+") not in range [1,256]");
+    stream(in, out, operation, 0, new IndexColorModel(8, palette.length, palette, 0, false, -1, DataBuffer.TYPE_BYTE));
+  }
+
+
+  //Apply operation to the image in file in, writing nothing (e.g., to
+  //  count its colors), in bands of about BAND_PIXELS pixels
+  public static void scan(File in, Operation operation)
+    throws IOException
+  {stream(in, null, operation, 0, null);}
+
+
+  //The width and height of the image in file in (without reading its
+  //  pixels)
+  public static Dimension size(File in)
+    throws IOException
+  {
+    try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+      ImageReader reader = reader(input, in);
+      try {
+        return new Dimension(reader.getWidth(0), reader.getHeight(0));
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+
+
+  //Helper methods and classes
+
+  //Stream the image in file in through operation, writing the result to
+  //  out (unless it is null), as indexes into palette (unless it is null)
+  private static void stream(File in, File out, Operation operation, int bandRows, IndexColorModel palette)
+    throws IOException
+  {
+    if (bandRows < 0)
+      throw new IllegalArgumentException("ImagePipeline - bandRows("+bandRows+") negative");
+
+    try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+      ImageReader reader = reader(input, in);
+      try {
+        int width  = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        int rows   = Math.min(height, bandRows > 0 ? bandRows : Math.max(1, BAND_PIXELS / width));
+        if ((long)width * rows > Integer.MAX_VALUE)
+          throw new IOException("ImagePipeline - " + width + "x" + rows + " band too large");
+
+        ImageTypeSpecifier type  = reader.getImageTypes(0).next();
+        boolean            alpha = type.getColorModel().hasAlpha();
+        BufferedImage      band  = type.createBufferedImage(width, rows);
+        ImageReadParam     param = reader.getDefaultReadParam();
+        param.setDestination(band);
+
+        try (BandWriter writer = (out == null ? null : newWriter(out, width, height, rows, alpha, palette))) {
+          int[] pixels = new int[width * rows];
+          for (int y = 0; y < height; y += rows) {
+            int n = Math.min(rows, height - y);
+            param.setSourceRegion(new Rectangle(0, y, width, n));
+            reader.read(0, param);
+            band.getRGB(0, 0, width, n, pixels, 0, width);
+            operation.apply(pixels, 0, width*n);
+            if (writer != null)
+              writer.write(y, n, pixels);
+          }
+        }
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+
+  //A reader for input (opened from file), positioned at its start
+  private static ImageReader reader(ImageInputStream input, File file)
+    throws IOException
+  {
+    if (input == null)
+      throw new IOException("ImagePipeline - cannot read " + file);
+    Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+    if (!readers.hasNext())
+      throw new IOException("ImagePipeline - no reader for " + file);
+    ImageReader reader = readers.next();
+    reader.setInput(input, false, true);
+    return reader;
+  }
+
+
+  //Writes the result's bands, in order
+  private interface BandWriter extends AutoCloseable
+  {
+    void write(int y, int rows, int[] pixels) throws IOException;
+    void close() throws IOException;
+  }
+
+
+  private static BandWriter newWriter(File out, int width, int height, int rows, boolean alpha,
+                                      IndexColorModel palette)
+    throws IOException
+  {
+    String name   = out.getName();
+    String suffix = name.substring(name.lastIndexOf('.')+1).toLowerCase();
+    if (suffix.equals("ppm") || suffix.equals("pnm"))
+      return new PPMWriter(out, width, height, palette);
+
+    //A writer must have its output before it says what it can do (and
+    //  can say whether it replaces pixels only once the image exists)
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersBySuffix(suffix);
+    if (writers.hasNext()) {
+      if (out.exists() && !out.delete())
+        throw new IOException("ImagePipeline - cannot replace " + out);
+      ImageOutputStream stream = ImageIO.createImageOutputStream(out);
+      if (stream == null)
+        throw new IOException("ImagePipeline - cannot write " + out);
+      ImageWriter writer    = null;
+      BandWriter  replacing = null;
+      try {
+        while (writers.hasNext()) {
+          writer = writers.next();
+          writer.setOutput(stream);
+          if (writer.canWriteEmpty()) {
+            writeEmpty(writer, width, height, alpha, palette);
+            if (writer.canReplacePixels(0))
+              replacing = new ReplacingWriter(writer, stream, width, rows, alpha, palette);
+            break;                      //The stream now holds its image
+          }
+          writer.dispose();
+          writer = null;
+        }
+      } finally {
+        //Unless it is writing, leave nothing open and no partial file
+        //  (also when a writer throws)
+        if (replacing == null) {
+          if (writer != null)
+            writer.dispose();
+          try {
+            stream.close();
+          } catch (IOException e) {
+            //Already failing: the file is deleted anyway
+          }
+          out.delete();
+        }
+      }
+      if (replacing != null)
+        return replacing;
+    }
+    throw new IOException("ImagePipeline - cannot write " + name + " a band at a time (use .ppm or .tif)");
+  }
+
+
+  //Write an empty width x height image, whose pixels are then replaced
+  //  a band (of the type bandImage makes) at a time
+  private static void writeEmpty(ImageWriter writer, int width, int height, boolean alpha,
+                                 IndexColorModel palette)
+    throws IOException
+  {
+    //(not createFromRenderedImage: for a standard image type, it forgets
+    //  the image's own palette)
+    writer.prepareWriteEmpty(null, new ImageTypeSpecifier(bandImage(1, 1, alpha, palette)),
+                             width, height, null, null, null);
+    writer.endWriteEmpty();
+  }
+
+
+  //A band of bytes: ABGR, BGR, or (if palette is not null) indexes
+  private static BufferedImage bandImage(int width, int rows, boolean alpha, IndexColorModel palette)
+  {
+    if (palette != null)      //(not TYPE_BYTE_INDEXED: it has its own palette)
+      return new BufferedImage(palette, palette.createCompatibleWritableRaster(width, rows), false, null);
+    return new BufferedImage(width, rows, alpha ? BufferedImage.TYPE_4BYTE_ABGR : BufferedImage.TYPE_3BYTE_BGR);
+  }
+
+
+  //Writes a binary PPM: a header, then 3 bytes (red, green, blue) per pixel
+  //  (pixels that are indexes are written as their palette colors)
+  private static class PPMWriter implements BandWriter
+  {
+    PPMWriter(File file, int width, int height, IndexColorModel palette)
+      throws IOException
+    {
+      this.width = width;
+      out        = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+      out.write(("P6\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+      row        = new byte[3*width];
+      if (palette != null) {
+        colors = new int[palette.getMapSize()];
+        palette.getRGBs(colors);
+      } else
+        colors = null;
+    }
+
+    public void write(int y, int rows, int[] pixels)
+      throws IOException
+    {
+      for (int r = 0; r < rows; r++) {
+        for (int x = 0, i = r*width; x < width; x++, i++) {
+          int p = (colors == null ? pixels[i] : colors[pixels[i]]);
+          row[3*x]   = (byte)(p >>> 16);
+          row[3*x+1] = (byte)(p >>> 8);
+          row[3*x+2] = (byte)p;
+        }
+        out.write(row);
+      }
+    }
+
+    public void close()
+      throws IOException
+    {out.close();}
+
+    private final int          width;
+    private final OutputStream out;
+    private final byte[]       row;
+    private final int[]        colors;     //The palette, or null
+  }
+
+
+  //Writes an empty image, then replaces its pixels a band at a time
+  private static class ReplacingWriter implements BandWriter
+  {
+    ReplacingWriter(ImageWriter writer, ImageOutputStream out, int width, int rows, boolean alpha,
+                    IndexColorModel palette)
+    {
+      this.writer  = writer;
+      this.width   = width;
+      this.out     = out;
+      this.alpha   = alpha;
+      this.indexed = (palette != null);
+      band         = bandImage(width, rows, alpha, palette);
+      param        = writer.getDefaultWriteParam();
+    }
+
+    public void write(int y, int rows, int[] pixels)
+      throws IOException
+    {
+      //Straight into band's bytes (indexes, ABGR, or BGR), not through setRGB
+      byte[] data = ((DataBufferByte)band.getRaster().getDataBuffer()).getData();
+      int    step = (alpha ? 4 : 3);
+      if (indexed)
+        for (int i = 0, end = width*rows; i < end; i++)
+          data[i] = (byte)pixels[i];
+      else
+        for (int i = 0, at = 0, end = width*rows; i < end; i++, at += step) {
+          int p = pixels[i], o = at;      //A (if any), B, G, R at data[at..]
+          if (alpha)
+            data[o++] = (byte)(p >>> 24);
+          data[o]   = (byte)p;
+          data[o+1] = (byte)(p >>> 8);
+          data[o+2] = (byte)(p >>> 16);
+        }
+      writer.prepareReplacePixels(0, new Rectangle(0, y, width, rows));
+      param.setSourceRegion(new Rectangle(0, 0, width, rows));
+      param.setDestinationOffset(new Point(0, y));
+      writer.replacePixels(band, param);
+      writer.endReplacePixels();
+    }
+
+    public void close()
+      throws IOException
+    {
+      try {
+        out.close();
+      } finally {
+        writer.dispose();
+      }
+    }
+
+    private final ImageWriter       writer;
+    private final int               width;
+    private final boolean           alpha;
+    private final boolean           indexed;   //pixels are palette indexes
+    private final ImageOutputStream out;
+    private final BufferedImage     band;
+    private final ImageWriteParam   param;
+  }
+
+
+
+  /////////////////////////////////////////////////////////////
+  //
+  //Driver Program
+  //
+  //Checks that images with and without alpha streamed into a TIFF read
+  //  back with every pixel right; exits with status 1 if any is wrong
+  //
+  /////////////////////////////////////////////////////////////
+
+  public static void main(String[] args)
+    throws IOException
+  {
+    boolean argb = check("ARGB", BufferedImage.TYPE_INT_ARGB);
+    boolean rgb  = check("RGB",  BufferedImage.TYPE_INT_RGB);
+    if (!argb || !rgb)
+      System.exit(1);
+  }
+
+
+  //Stream a 64x64 image of type (written as a PNG) into a TIFF, adding 1
+  //  to each red; print and return whether the TIFF reads back right
+  private static boolean check(String label, int type)
+    throws IOException
+  {
+    File in  = File.createTempFile("pipeline", ".png");
+    File out = File.createTempFile("pipeline", ".tif");
+    try {
+      BufferedImage image = new BufferedImage(64, 64, type);
+      for (int y = 0; y < 64; y++)
+        for (int x = 0; x < 64; x++)
+          image.setRGB(x, y, (4*y) << 24 | (4*x) << 16 | (x ^ y) << 8 | (x + y));
+      ImageIO.write(image, "png", in);
+
+      process(in, out, adjust(1, 0, 0, ImageAdjuster.Mode.WRAP));
+      BufferedImage result = ImageIO.read(out);
+      int wrong = 0;
+      for (int y = 0; y < 64; y++)
+        for (int x = 0; x < 64; x++)
+          if (result.getRGB(x, y) != image.getRGB(x, y) + 0x10000)    //No red wraps
+            wrong++;
+      System.out.println(label + " -> TIFF: " + (wrong == 0 ? "ok" : wrong + " pixels wrong"));
+      return wrong == 0;
+    } finally {
+      in.delete();
+      out.delete();
+    }
+  }
+
+
+
+  //Constants
+
+  //The pixels in a band (unless told otherwise): a few MB of memory
+  public static final int BAND_PIXELS = 1 << 20;
+}
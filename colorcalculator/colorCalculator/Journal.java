@@ -0,0 +1,232 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.Journal
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A Journal appends each change to a ColorModel (once the model is told
+// to use it) to files, so the model's state (and its History) can be
+// rebuilt by replaying them when the application starts again. Each
+// record has the same RECORD_BYTES layout as a dumped EventLog record
+// (big endian): long time, short kind, short channel, int argument, long
+// state (see EventLog for what each one means), except that its time is
+// System.currentTimeMillis (a journal outlives the program, and nanoTime
+// means nothing in another run).
+//
+//   The records go into a sequence of segment files, name.000000,
+// name.000001, ... in one directory (created if it does not exist), each
+// segmentBytes long (rounded down to a whole number of records). The
+// segment being appended to is mapped into memory, so appending a record
+// just stores it into the mapped buffer (the operating system writes it
+// to the file, even if the program then exits without closing the
+// journal); when a segment is full, the next one is created and mapped.
+//
+//   A segment's unused records are all zero. A record's kind (never 0) is
+// stored after the rest of it, so a record whose kind is 0 marks the end
+// of the journal. Opening an existing journal continues after its last
+// record (found by binary search in the newest segment).
+//
+//   Replaying maps each segment (read only) in turn and passes its records,
+// oldest first, to a Visitor; ColorModel.replay uses this to rebuild its
+// History and state.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: Records stamped with currentTimeMillis; directory created
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+
+public class Journal
+{
+
+  //Told about each record, by replay
+  public interface Visitor
+  {
+    void visit(long time, int kind, int channel, int argument, long state);
+  }
+
+
+
+  //Open the journal called name in directory (creating the directory and
+  //  its first segment if needed); new records are appended after any
+  //  already there
+  public Journal(File directory, String name, int segmentBytes)
+    throws IOException
+  {
+    if (segmentBytes < RECORD_BYTES)
+      throw new IllegalArgumentException("Journal - segmentBytes("+segmentBytes+") less than "+RECORD_BYTES);
+    this.directory    = directory;
+    this.name         = name;
+    this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+    if (!directory.isDirectory() && !directory.mkdirs())
+      throw new IOException("Journal - cannot create directory " + directory);
+
+    long[] existing = segments();
+    segment = (existing.length == 0 ? 0 : existing[existing.length-1]);
+    buffer  = map(segment, FileChannel.MapMode.READ_WRITE, this.segmentBytes);
+    buffer.position(RECORD_BYTES * end(buffer));
+  }
+
+
+
+  //Append one record (see the class comment for the meaning of each
+  //  parameter; kind must not be 0)
+  public synchronized void append(int kind, int channel, int argument, long state)
+  {
+    if (buffer == null)
+      throw new IllegalStateException("Journal - "+name+" is closed");
+    if (!buffer.hasRemaining())
+      roll();
+
+    int at = buffer.position();
+    buffer.putLong (at,    System.currentTimeMillis());
+    buffer.putInt  (at+12, argument);
+    buffer.putLong (at+16, state);
+    buffer.putShort(at+10, (short)channel);
+    buffer.putShort(at+8,  (short)kind);     //Last: completes the record
+    buffer.position(at + RECORD_BYTES);
+  }
+
+
+
+  //Pass every record in the journal (oldest first) to visitor; return
+  //  the number of records
+  public long replay(Visitor visitor)
+    throws IOException
+  {
+    long count = 0;
+    for (long s : segments()) {
+      MappedByteBuffer in = map(s, FileChannel.MapMode.READ_ONLY, -1);
+      for (int at = 0; at + RECORD_BYTES <= in.limit(); at += RECORD_BYTES) {
+        int kind = in.getShort(at+8);
+        if (kind == 0)
+          break;
+        visitor.visit(in.getLong(at), kind, in.getShort(at+10), in.getInt(at+12), in.getLong(at+16));
+        count++;
+      }
+    }
+    return count;
+  }
+
+
+
+  //Make sure every record appended so far is written to the file
+  public synchronized void force()
+  {
+    if (buffer != null)
+      buffer.force();
+  }
+
+
+  //Force and stop appending (appending afterward throws an exception)
+  public synchronized void close()
+  {
+    force();
+    buffer = null;
+  }
+
+
+
+  //Helper methods
+
+  //Start appending to the next segment
+  private void roll()
+  {
+    buffer.force();
+    try {
+      buffer = map(++segment, FileChannel.MapMode.READ_WRITE, segmentBytes);
+    } catch (IOException e) {
+      buffer = null;
+      throw new IllegalStateException("Journal - cannot create segment "+file(segment), e);
+    }
+  }
+
+
+  //Map segment s (all of its file, if size is -1; otherwise size bytes,
+  //  lengthening its file if necessary)
+  private MappedByteBuffer map(long s, FileChannel.MapMode mode, long size)
+    throws IOException
+  {
+    try (RandomAccessFile raf = new RandomAccessFile(file(s), mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw");
+         FileChannel      channel = raf.getChannel()) {
+      return channel.map(mode, 0, (size == -1 ? channel.size() : size));
+    }
+  }
+
+
+  //The number of records in segment (records 0..end-1 have a kind)
+  private static int end(MappedByteBuffer segment)
+  {
+    int low = 0, high = segment.limit() / RECORD_BYTES;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (segment.getShort(mid*RECORD_BYTES + 8) != 0)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return low;
+  }
+
+
+  //The numbers of this journal's segments, in increasing order
+  private long[] segments()
+  {
+    String[] files = directory.list();
+    if (files == null)
+      return new long[0];
+    long[] found = new long[files.length];
+    int    n     = 0;
+    for (String f : files)
+      if (f.length() == name.length() + 7 && f.startsWith(name + ".")) {
+        long s = 0;
+        for (int i = name.length()+1; i < f.length() && s >= 0; i++) {
+          char c = f.charAt(i);
+          s = ('0' <= c && c <= '9' ? 10*s + (c - '0') : -1);
+        }
+        if (s >= 0)
+          found[n++] = s;
+      }
+    found = Arrays.copyOf(found, n);
+    Arrays.sort(found);
+    return found;
+  }
+
+
+  private File file(long s)
+  {return new File(directory, String.format("%s.%06d", name, s));}
+
+
+
+  public static final int RECORD_BYTES = EventLog.RECORD_BYTES;
+
+
+
+  //Instance Variables
+  private final File   directory;
+  private final String name;
+  private final int    segmentBytes;     //A whole number of records
+
+  private long             segment;      //Number of the segment appended to
+  private MappedByteBuffer buffer;       //It, mapped (null once closed)
+}
@@ -23,22 +23,48 @@
 // debugging purposes, each time before calling view.update, the model
 // prints on the console the state of its instance variables. 
 // 
-//   Note that "no access modifier" means that the method is package
-// friendly: this means the member is public to all other classes in
-// the color machine package, but private elsewhere.
-//
+//   All these guts are inherited from ColorModel, which knows nothing
+// about the View (it just tells its ModelListeners, and View is one), so
+// they can also run without any GUI. Model adds only addView and main.
+// 
 //   This class includes a main method so Model can be tested
 // independenlty from the View and Controller. For this to work, we
-// cannot assume setView is called (if there is no view!), so we check
-// to see if view stores null before each call to update. To run main,
+// cannot assume addView is called (if there is no view!); a model with
+// no listeners tells nobody when it changes. To run main,
 // inside Java Target set the Main Class to colorCalculator.Model
 //
+//   Given an argument (a file name, or - for standard input), main instead
+// runs a script: whitespace-separated commands, using the letters in the
+// menu, with their arguments on the same line:
+//
+//     t color intensity   (e.g., t Red 128)
+//     b color amount      (e.g., b Green -10)
+//     h hex               (e.g., h #FF8000)
+//     ?
+//     u
+//     r
+//
+// No prompts are printed (only the ? output), and the script is read
+// through a ByteTokenizer (not Prompt), so a recorded session replays at
+// millions of commands per second; at the end the number of commands and
+// the rate are reported on System.err, as are bad commands (the rest of
+// a bad command's line is skipped).
+//
 // Future Plans   : Inactivate +10/-10 buttons when no number to change
 //
 // Program History:
 //   9/20/01: R. Pattis - Operational for 15-100/
 //   4/12/04: R. Pattis - Now using modular counters
 //   8/25/04: R. Pattis - Added main for independent testing
+//  10/16/26: State packed into one int (see PackedColor); no allocation
+//  10/16/26: Hex via HexCodec tables; added changeColorViaHex
+//  10/16/26: Guts moved into (headless) ColorModel
+//  10/16/26: main prints the state itself; e/l commands for the EventLog
+//  10/16/26: ? shows the nearest color name; p command loads a palette
+//  10/16/26: u/r/j commands undo, redo, and jump through the History
+//  10/16/26: Script mode (file or standard input, no prompts)
+//  10/16/26: Interactive mode stops when Prompt's input ends
+//  10/16/26: Script arguments read only from their command's line
 //
 //
 //////////////////////////////////////////////////////////////////////////////
@@ -49,119 +75,31 @@
 package colorCalculator;
 
 
-import java.lang.Integer;
-import java.awt.Color;
-import com.ivanaranda.ModularCounter;
-import com.ivanaranda.Prompt;            //For main only
+import java.io.BufferedOutputStream;     //For main only
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import com.ivanaranda.ByteTokenizer;
+import com.ivanaranda.Prompt;
 
 
-public class Model {
+public class Model extends ColorModel {
 
   public Model ()
   {
-    //All colors initialized to null in their declarations; if I omitted
-    //  this constructor, Java would write it for me anyway!
+    //All the state is in ColorModel; if I omitted this constructor,
+    //  Java would write it for me anyway!
   }
 
    
     
   //Refer to the view (used to call update after each button press)
   public void addView(View v)
-  {view = v;}
- 
- 
- 
-  //Implement method called by controller (or by main) 
-  void changeColorViaTextField(String color, String intensity)
-  {
-    //Find right color, but assume illegal value by setting it to null
-    if (color.equals("Red"))
-      red = null;
-    else if (color.equals("Green"))
-      green = null;
-    else if (color.equals("Blue"))
-      blue = null;
-    else
-      return;  //Not a good color!
-      
-    //Compute the real value for the color
-    //Possible exceptions if: not a number or not in range [0..255] 
-    try {
-      int i = Integer.parseInt(intensity);
-	    if (color.equals("Red"))
-	      red = new ModularCounter(i,256);
-	    if (color.equals("Green"))
-	      green = new ModularCounter(i,256);;
-	    if (color.equals("Blue"))
-	      blue = new ModularCounter(i,256);;
-    }catch (Exception e) {/*don't set value; use null one*/} 
-    
-    //Always display state in the console and update GUI
-    System.out.println("State: " + this +"\n");
-    if (view != null)    //Checked in case main (not application) running
-      view.update();
-   }  
-
-
-
-  //Implement method called by controller (or by main)
-  void changeColorViaButton(String color, int amount)
-  {
-    //Increment correct color, only if it has a correct value
-    if (color.equals("Red")        && red   != null)
-      red.update(amount);
-    else if (color.equals("Green") && green != null)
-      green.update(amount);
-    else if (color.equals("Blue")  && blue  != null)
-      blue.update(amount);
-    else
-      return;  //Not a good color!
-
-    //Always display state in the console and update GUI
-    System.out.println("State: " + this +"\n");
-    if (view != null)    //Checked in case main (not application) running
-      view.update();
-  }  
-      
-
-
-  //The view calls these accessors
-  int getRed()
-  {return (red == null ? -1 : red.getValue());}
-  
-  
-  int getGreen()
-  {return (green == null ? -1 : green.getValue());}
-  
-  
-  int getBlue()
-  {return (blue == null ? -1 : blue.getValue());}
-  
-  
-  String getHex()
-  {return gh(getRed()) + gh(getGreen()) + gh(getBlue());}
- 
- 
-  
-  //Primarily for debugging purposes
-  public String toString()
-  {return "Model[red=" + red + ", green=" + green + ", blue=" + blue +"]";}
-  
-  
-  
-  //Helper method
-  private String gh (int i)
-  {
-    String hexDigits = "0123456789ABCDEF";
-    return ""+hexDigits.charAt(i/16)+hexDigits.charAt(i%16);
-  }
-  
-
-
-  //Fields (all instance variablesd)
-  private View view;         // Model must tell View when to update itself
-  
-  private ModularCounter red,green,blue;
+  {addListener(v);}
     
     
     
@@ -178,7 +116,13 @@ public class Model {
   
  
 	public static void main(String[] args)
+	  throws IOException
 	{
+	  if (args.length > 0) {
+	    runScript(args[0]);
+	    return;
+	  }
+
 	  //Prompt for construction arguments; get object to test; Don't use constructor directly
 	  Model m = new Model();
 	  System.out.println("State: "+ m +"\n");
@@ -188,19 +132,33 @@ public class Model {
 	      System.out.println("Menu");
         System.out.println("  t - changeColorViaTextField");
         System.out.println("  b - changeColorViaButton");
+        System.out.println("  h - changeColorViaHex");
         System.out.println("  ? - view all accessors");
+        System.out.println("  e - enable/disable event log");
+        System.out.println("  l - dump event log to a file");
+        System.out.println("  p - load a named-color palette");
+        System.out.println("  u - undo");
+        System.out.println("  r - redo");
+        System.out.println("  j - jump to a step in the history");
         System.out.println("  q - quit");
-        char selection = Prompt.forChar("Enter Command","tb?q");
+        char selection = Prompt.forChar("Enter Command","tbh?elpurjq");
 
         if (selection == 't') {
           String color     = Prompt.forString("  Enter color    ");
           String intensity = Prompt.forString("  Enter intensity");
           m.changeColorViaTextField(color,intensity);
+          System.out.println("State: "+ m +"\n");
           
         }else if (selection == 'b') {
           String color  = Prompt.forString("  Enter color ");
           int    amount = Prompt.forInt   ("  Enter amount");
           m.changeColorViaButton(color,amount);
+          System.out.println("State: "+ m +"\n");
+       
+        }else if (selection == 'h') {
+          String hex = Prompt.forString("  Enter hex   ");
+          m.changeColorViaHex(hex);
+          System.out.println("State: "+ m +"\n");
        
         }else if (selection == '?') {
            System.out.println("  getRed   = " + m.getRed());
@@ -210,18 +168,144 @@ public class Model {
              System.out.println("  No getHex because some colors missing");
            else
              System.out.println("  getHex   = " + m.getHex());
+           System.out.println("  getNearestColorName = " + m.getNearestColorName());
            System.out.println();
 
+        }else if (selection == 'e') {
+          EventLog log = m.getEventLog();
+          log.setEnabled(!log.isEnabled());
+          System.out.println("  Event log " + (log.isEnabled() ? "enabled" : "disabled") + "\n");
+
+        }else if (selection == 'l') {
+          String file = Prompt.forString("  Enter file name");
+          int    n    = m.getEventLog().dump(new File(file));
+          System.out.println("  Dumped " + n + " records to " + file + "\n");
+
+        }else if (selection == 'p') {
+          String file = Prompt.forString("  Enter file name");
+          if (m.getColorNames() == ColorNames.CSS)
+            m.setColorNames(ColorNames.css());    //Don't change the shared one
+          int    n    = m.getColorNames().load(new File(file));
+          System.out.println("  Loaded " + n + " named colors from " + file + "\n");
+
+        }else if (selection == 'u' || selection == 'r') {
+          boolean moved = (selection == 'u' ? m.undo() : m.redo());
+          if (!moved)
+            System.out.println("  Nothing to " + (selection == 'u' ? "undo" : "redo"));
+          System.out.println("State: "+ m +"\n");
+
+        }else if (selection == 'j') {
+          History h = m.getHistory();
+          System.out.println("  Steps " + h.getOldestStep() + ".." + h.getNewestStep() +
+                             " (current " + h.getCurrentStep() + ")");
+          long step = Prompt.forInt("  Enter step");
+          if (!m.jumpTo(step))
+            System.out.println("  Step " + step + " is not in the history");
+          System.out.println("State: "+ m +"\n");
+
         }else if (selection == 'q')
           break;
         
         else
           System.out.println("\""+selection+"\" is unknown command");
 
+      }catch(UncheckedIOException e) {
+        System.out.println("  Input ended/failed: "+e.getCause().getMessage());
+        break;
       }catch(Exception e) {
         System.out.println("  Exception Caught/Handled: "+e.getMessage());
       }
   }
+
+
+
+  //Run the script in file (- for standard input) on a new Model, then
+  //  report how many commands ran, and how fast
+  private static void runScript(String file)
+    throws IOException
+  {
+    ByteTokenizer in = (file.equals("-")
+                         ? new ByteTokenizer(new FileInputStream(FileDescriptor.in))
+                         : new ByteTokenizer(new FileInputStream(file).getChannel()));
+    PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+
+    long start = System.nanoTime();
+    long n     = runScript(new Model(), in, out);
+    long nanos = Math.max(1, System.nanoTime() - start);
+    out.flush();
+    System.err.println(n + " commands in " + nanos/1000000 + " ms (" +
+                       (long)(n * 1e9 / nanos) + " commands/second)");
+  }
+
+
+  //Run every command read from in on m, printing ? output on out and bad
+  //  commands on System.err (skipping the rest of their line); return the
+  //  number of commands run
+  public static long runScript(ColorModel m, ByteTokenizer in, PrintStream out)
+    throws IOException
+  {
+    long n = 0;
+    while (in.nextToken()) {
+      n++;
+      char command = (in.length() == 1 ? (char)in.buffer()[in.start()] : ' ');
+
+      if (command == 't' || command == 'b') {
+        int channel = (in.nextTokenOnLine() ? channelOf(in) : -1);
+        if (channel == -1 || !in.nextTokenOnLine()) {
+          scriptError(n,"bad/missing color",in);
+          continue;
+        }
+        if (command == 't')
+          m.setColor(channel,ChannelParser.parse(in.buffer(),in.start(),in.length()));
+        else {
+          long amount = in.intValue();
+          if (amount == ByteTokenizer.NOT_A_NUMBER)
+            scriptError(n,"bad amount",in);
+          else
+            m.changeColor(channel,(int)amount);
+        }
+
+      }else if (command == 'h') {
+        if (in.nextTokenOnLine())
+          m.changeColorViaHex(in.token());
+        else
+          scriptError(n,"missing hex",in);
+
+      }else if (command == '?') {
+        out.println("getRed   = " + m.getRed());
+        out.println("getGreen = " + m.getGreen());
+        out.println("getBlue  = " + m.getBlue());
+        out.println("getHex   = " + m.getHex());
+
+      }else if (command == 'u')
+        m.undo();
+
+      else if (command == 'r')
+        m.redo();
+
+      else
+        scriptError(n,"\"" + in.token() + "\" is unknown command",in);
+    }
+    return n;
+  }
+
+
+  //The index of the channel whose label is in's token, or -1
+  private static int channelOf(ByteTokenizer in)
+  {
+    for (int c = 0; c < PackedColor.CHANNELS; c++)
+      if (in.tokenEquals(Channel.of(c).label))
+        return c;
+    return -1;
+  }
+
+
+  private static void scriptError(long command, String message, ByteTokenizer in)
+    throws IOException
+  {
+    System.err.println("Command " + command + ": " + message);
+    in.nextLine();
+  }
 }
 
 
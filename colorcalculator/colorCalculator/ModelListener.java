@@ -0,0 +1,34 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Interface      : colorCalculator.ModelListener
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A ModelListener is told (by calling its update method) each time the
+// state of a ColorModel changes; it can then call the model's accessors to
+// find out what the new state is. The View is the ModelListener in the
+// GUI application, but any code (e.g., running on a server, with no
+// display) can listen to a ColorModel without loading AWT/Swing.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (ColorModel no longer refers to View)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public interface ModelListener
+{
+  //Called by the model after each change to its state
+  void update();
+}
@@ -0,0 +1,184 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.PackedColor
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   PackedColor is a (static) method library for the packed int that the
+// Model uses to store its whole state: the red, green and blue intensities
+// and, for each one, whether it has been entered (is valid). Each state
+// change computes a new int, so changing a color never allocates.
+//
+//   The layout of a packed state is
+//
+//     bits  0- 7: blue  intensity (0 when not entered)
+//     bits  8-15: green intensity (0 when not entered)
+//     bits 16-23: red   intensity (0 when not entered)
+//     bit  24   : red   entered
+//     bit  25   : green entered
+//     bit  26   : blue  entered
+//
+// so the low 24 bits of a complete state are the usual 0xRRGGBB value.
+// Intensities are updated modulo 256, just like the ModularCounters the
+// Model used to store.
+//
+//   A model with an alpha channel needs more than 32 bits, so it packs its
+// state into a long: the low 32 bits are laid out exactly as above, and
+//
+//     bits 32-39: alpha intensity (0 when not entered)
+//     bit  40   : alpha entered
+//
+// Every method has a long version (which works for all four channels)
+// and an int version (which works only for RED, GREEN, and BLUE). Where
+// each channel lives is stored in arrays indexed by channel, so no method
+// needs an if-chain to find it.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (replaces Model's three ModularCounters)
+//  10/16/26: Optional alpha channel (long states); channel tables
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+public final class PackedColor
+{
+
+  //Static method library: no objects
+  private PackedColor()
+  {}
+
+
+
+  //Build a complete state from three intensities (each in [0,255])
+  public static int of(int red, int green, int blue)
+  {return ALL_VALID | (red << 16) | (green << 8) | blue;}
+
+
+  //Build a complete state from a 0xRRGGBB value (higher bits are ignored)
+  public static int ofRGB(int rgb)
+  {return ALL_VALID | (rgb & RGB_MASK);}
+
+
+  //Build a complete state (with alpha) from a 0xAARRGGBB value
+  public static long ofARGB(int argb)
+  {return ALPHA_VALID | ((long)(argb >>> 24) << 32) | ofRGB(argb);}
+
+
+
+  //Return the intensity of channel (RED, GREEN, BLUE, or ALPHA) in state,
+  //  or -1 if that channel has not been entered
+  public static int get(long state, int channel)
+  {
+    if ((state & VALID[channel]) == 0)
+      return -1;
+    return (int)(state >>> SHIFT[channel]) & 0xFF;
+  }
+
+
+  public static int get(int state, int channel)
+  {return get((long)state,channel);}
+
+
+  //Return whether channel has been entered in state
+  public static boolean isValid(long state, int channel)
+  {return (state & VALID[channel]) != 0;}
+
+
+  public static boolean isValid(int state, int channel)
+  {return isValid((long)state,channel);}
+
+
+  //Return whether all three of red, green, and blue have been entered
+  //  in state (alpha is not needed to display a color)
+  public static boolean isComplete(long state)
+  {return (state & ALL_VALID) == ALL_VALID;}
+
+
+  public static boolean isComplete(int state)
+  {return (state & ALL_VALID) == ALL_VALID;}
+
+
+  //Return the 0xRRGGBB value stored in state (missing channels are 0)
+  public static int rgb(long state)
+  {return (int)state & RGB_MASK;}
+
+
+  public static int rgb(int state)
+  {return state & RGB_MASK;}
+
+
+  //Return the 0xAARRGGBB value stored in state (missing channels are 0)
+  public static int argb(long state)
+  {return (int)((state >>> 8) & 0xFF000000L) | ((int)state & RGB_MASK);}
+
+
+  //Return the RGB part of state (its low 32 bits), as an int state
+  public static int rgbState(long state)
+  {return (int)state;}
+
+
+
+  //Return state with channel set to intensity (which must be in [0,255])
+  public static long set(long state, int channel, int intensity)
+  {
+    int s = SHIFT[channel];
+    return (state & ~(0xFFL << s)) | ((long)intensity << s) | VALID[channel];
+  }
+
+
+  public static int set(int state, int channel, int intensity)
+  {return (int)set((long)state,channel,intensity);}
+
+
+  //Return state with channel marked as not entered
+  public static long clear(long state, int channel)
+  {return state & ~((0xFFL << SHIFT[channel]) | VALID[channel]);}
+
+
+  public static int clear(int state, int channel)
+  {return (int)clear((long)state,channel);}
+
+
+  //Return state with channel incremented/decremented by delta (modulo 256);
+  //  a channel that has not been entered is left unchanged
+  public static long update(long state, int channel, int delta)
+  {
+    if ((state & VALID[channel]) == 0)
+      return state;
+    int s = SHIFT[channel];
+    return (state & ~(0xFFL << s)) | ((((state >>> s) + delta) & 0xFFL) << s);
+  }
+
+
+  public static int update(int state, int channel, int delta)
+  {return (int)update((long)state,channel,delta);}
+
+
+
+  //Channel indexes (the same as Channel's indexes) and masks
+  public static final int RED      = 0;
+  public static final int GREEN    = 1;
+  public static final int BLUE     = 2;
+  public static final int ALPHA    = 3;
+  public static final int CHANNELS = 4;
+
+  public static final int  EMPTY       = 0;             //No channel entered
+  public static final int  RGB_MASK    = 0x00FFFFFF;
+  public static final int  ALL_VALID   = 0x07000000;    //Red, green, and blue
+  public static final long ALPHA_VALID = 1L << 40;
+
+  //Where each channel (by index) lives in a packed state
+  private static final int[]  SHIFT = {16, 8, 0, 32};
+  private static final long[] VALID = {1L << 24, 1L << 25, 1L << 26, ALPHA_VALID};
+}
@@ -0,0 +1,420 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.Quantizer
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   Quantizer is a (static) method library that reduces images to a
+// palette of at most n 0xRRGGBB colors (packed as the calculator packs
+// them), then maps each pixel to its nearest palette color. Palettes are
+// chosen from a ColorHistogram of the image (counted in parallel), by
+// either of two methods:
+//
+//     OCTREE    : the colors are inserted into an octree (each level
+//                 splitting RGB space by one more bit of each channel);
+//                 whenever it has more than n leaves, the most recently
+//                 created node at the deepest level is merged into a leaf
+//     MEDIAN_CUT: starting with one box holding all the colors, the box
+//                 with the largest (pixel count x longest side) is split
+//                 across its longest side, at the median pixel, until there
+//                 are n boxes (or none can be split)
+//
+// Each leaf/box becomes the (count-weighted) average of its colors. Both
+// methods are deterministic: the histogram's counts do not depend on how
+// the counting was split among threads, its colors are visited in
+// increasing order, and every tie is broken by position. So the same
+// image always gives the same palette.
+//
+//   A palette becomes a ColorNames (entries "color0", "color1", ..., so
+// it can be saved as a palette file and loaded back into the calculator
+// with Model's p command), which finds each pixel's nearest entry. Large
+// images are mapped a band at a time through ImagePipeline (quantize), so
+// they need not fit in memory. Mapping caches the nearest entry of
+// recently seen colors (images repeat colors a lot), in a small
+// direct-mapped table per tile.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+
+public final class Quantizer
+{
+
+  //How a palette is chosen
+  public enum Method {OCTREE, MEDIAN_CUT}
+
+
+
+  //Static method library: no objects
+  private Quantizer()
+  {}
+
+
+
+  //At most n colors (in increasing order) that represent the colors
+  //  counted in histogram, chosen by method
+  public static int[] palette(ColorHistogram histogram, int n, Method method)
+  {
+    if (n < 1)
+      throw new IllegalArgumentException("Quantizer - n("+n+") not positive");
+    int[] colors = histogram.colors();
+    if (colors.length == 0)
+      return colors;            //Nothing counted: no colors to represent
+    int[] counts = new int[colors.length];
+    for (int i = 0; i < colors.length; i++)
+      counts[i] = histogram.count(colors[i]);
+
+    int[] palette = (method == Method.OCTREE ? octree(colors, counts, n) : medianCut(colors, counts, n));
+    Arrays.sort(palette);
+    return palette;
+  }
+
+
+  //palette as a ColorNames, its entries named "color0", "color1", ...
+  public static ColorNames toColorNames(int[] palette)
+  {
+    ColorNames names = new ColorNames();
+    for (int i = 0; i < palette.length; i++)
+      names.add("color" + i, palette[i]);
+    return names;
+  }
+
+
+  //The histogram of the image in file in (read a band at a time)
+  public static ColorHistogram histogram(File in)
+    throws IOException
+  {
+    final ColorHistogram histogram = new ColorHistogram();
+    ImagePipeline.scan(in, (pixels, off, len) -> histogram.add(ColorHistogram.of(pixels, off, len)));
+    return histogram;
+  }
+
+
+  //Reduce the image in file in to at most n colors chosen by method,
+  //  writing it to file out (see ImagePipeline.process); return its palette
+  public static ColorNames quantize(File in, File out, int n, Method method)
+    throws IOException
+  {
+    ColorNames palette = toColorNames(palette(histogram(in), n, method));
+    ImagePipeline.process(in, out, mapping(palette));
+    return palette;
+  }
+
+
+
+  //Store the index (in palette) of the entry nearest to each of the
+  //  pixels in pixels[off..off+len-1] (alpha is ignored) in
+  //  indexes[at..at+len-1]
+  public static void indexes(ColorNames palette, int[] pixels, int off, int len, int[] indexes, int at)
+  {
+    if (off < 0 || len < 0 || off + len > pixels.length || at < 0 || at + len > indexes.length)
+      throw new ArrayIndexOutOfBoundsException("Quantizer - range not in array");
+    tiles(palette, pixels, off, len, indexes, at, null);
+  }
+
+
+  //The operation that replaces each pixel by its nearest color in palette
+  //  (keeping its alpha), for ImagePipeline
+  public static ImagePipeline.Operation mapping(final ColorNames palette)
+  {
+    final int[] colors = new int[palette.size()];
+    for (int i = 0; i < colors.length; i++)
+      colors[i] = palette.getColor(i);
+    return (pixels, off, len) -> tiles(palette, pixels, off, len, pixels, off, colors);
+  }
+
+
+
+  //Helper methods and classes
+
+  //Look up the nearest entry of each pixel, in parallel tiles; store its
+  //  index (colors null) or, keeping the pixel's alpha, its color
+  private static void tiles(final ColorNames palette, final int[] pixels, final int off, final int len,
+                            final int[] out, final int at, final int[] colors)
+  {
+    if (len < PARALLEL_THRESHOLD) {
+      nearest(palette, pixels, off, len, out, at, colors);
+      return;
+    }
+    IntStream.range(0, (len + TILE_PIXELS - 1) / TILE_PIXELS).parallel().forEach(t -> {
+      int start = t*TILE_PIXELS;
+      nearest(palette, pixels, off + start, Math.min(TILE_PIXELS, len - start), out, at + start, colors);
+    });
+  }
+
+
+  private static void nearest(ColorNames palette, int[] pixels, int off, int len,
+                              int[] out, int at, int[] colors)
+  {
+    int[] cachedColor = new int[CACHE_SIZE];
+    int[] cachedIndex = new int[CACHE_SIZE];
+    Arrays.fill(cachedColor, -1);             //Not an 0xRRGGBB color
+    for (int i = 0; i < len; i++) {
+      int p    = pixels[off+i];
+      int rgb  = p & PackedColor.RGB_MASK;
+      int slot = (rgb * 0x9E3779B9) >>> (32 - CACHE_BITS);
+      int index;
+      if (cachedColor[slot] == rgb)
+        index = cachedIndex[slot];
+      else {
+        index = palette.nearest(rgb);
+        cachedColor[slot] = rgb;
+        cachedIndex[slot] = index;
+      }
+      out[at+i] = (colors == null ? index : (p & 0xFF000000) | colors[index]);
+    }
+  }
+
+
+  //The average color of colors[lo..hi-1], weighted by their counts
+  private static int average(int[] colors, int[] counts, int lo, int hi)
+  {
+    long red = 0, green = 0, blue = 0, total = 0;
+    for (int i = lo; i < hi; i++) {
+      int c = colors[i];
+      long w = counts[i];
+      red   += w * (c >>> 16);
+      green += w * ((c >>> 8) & 0xFF);
+      blue  += w * (c & 0xFF);
+      total += w;
+    }
+    return PackedColor.rgb(PackedColor.of((int)((red   + total/2) / total),
+                                          (int)((green + total/2) / total),
+                                          (int)((blue  + total/2) / total)));
+  }
+
+
+
+  //Median cut
+
+  //colors[lo..hi-1] (and their counts): the RGB box around them
+  private static class Box
+  {
+    Box(int[] colors, int[] counts, int lo, int hi)
+    {
+      this.lo = lo;
+      this.hi = hi;
+      int[] min = {255, 255, 255}, max = {0, 0, 0};
+      for (int i = lo; i < hi; i++) {
+        for (int c = 0; c < 3; c++) {
+          int v = (colors[i] >>> (16 - 8*c)) & 0xFF;
+          min[c] = Math.min(min[c], v);
+          max[c] = Math.max(max[c], v);
+        }
+        population += counts[i];
+      }
+      for (int c = 0; c < 3; c++)
+        if (max[c] - min[c] > max[axis] - min[axis])
+          axis = c;
+      side = max[axis] - min[axis];
+    }
+
+    final int lo, hi;
+    long      population;
+    int       axis;             //Longest side: RED, GREEN, or BLUE
+    int       side;             //Its length
+  }
+
+
+  private static int[] medianCut(int[] colors, int[] counts, int n)
+  {
+    ArrayList<Box> boxes = new ArrayList<Box>();
+    boxes.add(new Box(colors, counts, 0, colors.length));
+    while (boxes.size() < n) {
+      int    best  = -1;
+      double score = 0;
+      for (int b = 0; b < boxes.size(); b++) {
+        Box box = boxes.get(b);
+        if (box.side > 0 && (double)box.population * box.side > score) {
+          best  = b;
+          score = (double)box.population * box.side;
+        }
+      }
+      if (best == -1)
+        break;                  //Every box holds one color
+      Box box = boxes.get(best);
+      int cut = split(colors, counts, box);
+      boxes.set(best, new Box(colors, counts, box.lo, cut));
+      boxes.add(new Box(colors, counts, cut, box.hi));
+    }
+
+    int[] palette = new int[boxes.size()];
+    for (int b = 0; b < palette.length; b++)
+      palette[b] = average(colors, counts, boxes.get(b).lo, boxes.get(b).hi);
+    return palette;
+  }
+
+
+  //Sort box's colors along its axis (then by color), and return the
+  //  index splitting them at the median pixel (both sides non-empty)
+  private static int split(int[] colors, int[] counts, Box box)
+  {
+    //Each color as its axis intensity, color, and count in one long (so
+    //  sorting them moves all three)
+    int    shift = 16 - 8*box.axis;
+    long[] keys  = new long[box.hi - box.lo];
+    for (int i = box.lo; i < box.hi; i++) {
+      long key = (long)((colors[i] >>> shift) & 0xFF) << 24 | colors[i];
+      keys[i - box.lo] = key << 31 | counts[i];
+    }
+    Arrays.sort(keys);
+    for (int i = box.lo; i < box.hi; i++) {
+      colors[i] = (int)(keys[i - box.lo] >>> 31) & PackedColor.RGB_MASK;
+      counts[i] = (int)(keys[i - box.lo] & Integer.MAX_VALUE);
+    }
+
+    //The first color where the pixels before and at it reach half;
+    //  the axis has more than one intensity, so the cut can be moved to
+    //  leave both sides non-empty
+    long half = (box.population + 1) / 2, sum = 0;
+    int  cut  = box.lo;
+    while (cut < box.hi - 1 && (sum += counts[cut]) < half)
+      cut++;
+    return Math.max(box.lo + 1, Math.min(box.hi - 1, cut + 1));
+  }
+
+
+
+  //Octree
+
+  private static class Node
+  {
+    long   red, green, blue, count;    //Sums over the colors in a leaf
+    Node[] children = new Node[8];     //null in a leaf
+    Node   next;                       //In its level's reducible stack
+  }
+
+
+  private static class Octree
+  {
+    Octree()
+    {push(root, 0);}
+
+
+    void insert(int rgb, int count)
+    {
+      Node node = root;
+      for (int level = 0; node.children != null; level++) {
+        int bit   = 7 - level;
+        int child = ((rgb >>> (16+bit)) & 1) << 2 | ((rgb >>> (8+bit)) & 1) << 1 | ((rgb >>> bit) & 1);
+        if (node.children[child] == null) {
+          Node added = new Node();
+          if (level + 1 == DEPTH) {
+            added.children = null;
+            leaves++;
+          } else
+            push(added, level + 1);
+          node.children[child] = added;
+        }
+        node = node.children[child];
+      }
+      node.red   += (long)count * (rgb >>> 16);
+      node.green += (long)count * ((rgb >>> 8) & 0xFF);
+      node.blue  += (long)count * (rgb & 0xFF);
+      node.count += count;
+    }
+
+
+    //Merge the children (all leaves) of the most recently created node at
+    //  the deepest level into it
+    void reduce()
+    {
+      int level = DEPTH - 1;
+      while (reducible[level] == null)
+        level--;
+      Node node = reducible[level];
+      reducible[level] = node.next;
+      for (Node child : node.children)
+        if (child != null) {
+          node.red   += child.red;
+          node.green += child.green;
+          node.blue  += child.blue;
+          node.count += child.count;
+          leaves--;
+        }
+      node.children = null;
+      leaves++;
+    }
+
+
+    //The average color of each leaf (in depth-first order)
+    int[] colors()
+    {
+      int[] colors = new int[leaves];
+      collect(root, colors, 0);
+      return colors;
+    }
+
+
+    private int collect(Node node, int[] colors, int n)
+    {
+      if (node.children == null) {
+        if (node.count > 0)
+          colors[n++] = PackedColor.rgb(PackedColor.of((int)((node.red   + node.count/2) / node.count),
+                                                       (int)((node.green + node.count/2) / node.count),
+                                                       (int)((node.blue  + node.count/2) / node.count)));
+        return n;
+      }
+      for (Node child : node.children)
+        if (child != null)
+          n = collect(child, colors, n);
+      return n;
+    }
+
+
+    private void push(Node node, int level)
+    {
+      node.next = reducible[level];
+      reducible[level] = node;
+    }
+
+
+    final Node   root      = new Node();
+    final Node[] reducible = new Node[DEPTH];   //Stacks of internal nodes
+    int          leaves;
+  }
+
+
+  private static int[] octree(int[] colors, int[] counts, int n)
+  {
+    Octree tree = new Octree();
+    for (int i = 0; i < colors.length; i++) {
+      tree.insert(colors[i], counts[i]);
+      while (tree.leaves > n)
+        tree.reduce();
+    }
+    return tree.colors();
+  }
+
+
+
+  //Constants
+
+  //Arrays at least this long are mapped in parallel, TILE_PIXELS at a time
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+  private static final int TILE_PIXELS        = 1 << 16;
+
+  private static final int DEPTH      = 8;                 //Bits per channel
+  private static final int CACHE_BITS = 12;
+  private static final int CACHE_SIZE = 1 << CACHE_BITS;
+}
@@ -0,0 +1,255 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.SessionStore
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A SessionStore keeps the red/green/blue state of a huge number of
+// sessions (identified by ints 0..capacity-1) outside the Java heap: each
+// session's state is the 4-byte packed int described in PackedColor,
+// stored in a direct (or memory-mapped) ByteBuffer. So a million sessions
+// take 4MB and no objects (nothing for the garbage collector to trace),
+// instead of a ColorModel (and its History) each. Its methods are the
+// same as ColorModel's, with a session id added: setColor,
+// changeColor (apply a delta), changeColorViaHex, getColor, getHex, ...
+// (there is no alpha, undo, event log, or listeners).
+//
+//   The sessions are striped across shards (session id's low bits choose
+// its shard; the rest, its slot in the shard), each a separate buffer,
+// so the store can grow past the 2GB limit of one ByteBuffer and
+// neighboring sessions live in different regions of memory. Each state
+// is read and changed like ColorModel's: a volatile read, then a
+// compare-and-set (through a VarHandle view of the buffer) of the new
+// state, retrying if another thread changed it first. So any number of
+// threads can use the store at once, without locks.
+//
+//   A store built on a file maps it (the shards one after another), so
+// its sessions outlive the program.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+
+public class SessionStore
+{
+
+  //A store of capacity sessions (all EMPTY) in shards direct buffers
+  //  (shards is rounded up to a power of 2)
+  public SessionStore(int capacity, int shards)
+  {this(capacity, allocate(capacity, stripes(capacity,shards)));}
+
+
+  //A store of capacity sessions mapped from file (created, full of EMPTY
+  //  sessions, if it does not exist; a file written by a store with a
+  //  different capacity or number of shards is misread)
+  public SessionStore(File file, int capacity, int shards)
+    throws IOException
+  {this(capacity, map(file, capacity, stripes(capacity,shards)));}
+
+
+  private SessionStore(int capacity, ByteBuffer[] buffers)
+  {
+    this.capacity = capacity;
+    this.buffers  = buffers;
+    shardBits     = Integer.numberOfTrailingZeros(buffers.length);
+  }
+
+
+
+  //The packed (int) state of session id
+  public int getState(int id)
+  {return (int)STATE.getVolatile(shard(id), slot(id));}
+
+
+  //An immutable copy of session id's state
+  public ColorSnapshot snapshot(int id)
+  {return new ColorSnapshot(getState(id));}
+
+
+  //Return the intensity of channel (a Channel index: RED, GREEN, or BLUE)
+  //  in session id, or -1 if it is not entered
+  public int getColor(int id, int channel)
+  {return PackedColor.get(getState(id), channel);}
+
+
+  //Colors not entered appear as "--" (e.g., "FF--00")
+  public String getHex(int id)
+  {
+    char[] hex = new char[6];
+    HexCodec.encodeState(getState(id), hex, 0);
+    return new String(hex);
+  }
+
+
+
+  //Set channel in session id to intensity; any intensity outside [0,255]
+  //  marks the channel as not entered (like ColorModel.setColor); return
+  //  the new state
+  public int setColor(int id, int channel, int intensity)
+  {
+    checkChannel(channel);
+    boolean    legal  = (0 <= intensity && intensity <= 255);
+    ByteBuffer buffer = shard(id);
+    int        slot   = slot(id);
+
+    int old, now;
+    do {
+      old = (int)STATE.getVolatile(buffer, slot);
+      now = (legal ? PackedColor.set(old, channel, intensity) : PackedColor.clear(old, channel));
+    } while (!STATE.compareAndSet(buffer, slot, old, now));
+    return now;
+  }
+
+
+  //Implement the text field: set channel in session id to the intensity
+  //  in text (see ChannelParser); return the new state
+  public int changeColorViaTextField(int id, int channel, CharSequence text)
+  {return setColor(id, channel, ChannelParser.parse(text));}
+
+
+  //Increment channel in session id by delta (modulo 256), only if it has
+  //  been entered (like ColorModel.changeColor); return the new state
+  public int changeColor(int id, int channel, int delta)
+  {
+    checkChannel(channel);
+    ByteBuffer buffer = shard(id);
+    int        slot   = slot(id);
+
+    int old, now;
+    do {
+      old = (int)STATE.getVolatile(buffer, slot);
+      now = PackedColor.update(old, channel, delta);
+      if (now == old)
+        return old;   //Not entered (or a multiple of 256): nothing to do
+    } while (!STATE.compareAndSet(buffer, slot, old, now));
+    return now;
+  }
+
+
+  //Set all three colors of session id from a "#RRGGBB" or "RRGGBB" value
+  //  (an illegal value makes them all not entered); return the new state
+  public int changeColorViaHex(int id, CharSequence hex)
+  {
+    int rgb   = HexCodec.decode(hex);
+    int state = (rgb == -1 ? PackedColor.EMPTY : PackedColor.ofRGB(rgb));
+    STATE.setVolatile(shard(id), slot(id), state);
+    return state;
+  }
+
+
+  //Make every color in session id not entered
+  public void clear(int id)
+  {STATE.setVolatile(shard(id), slot(id), PackedColor.EMPTY);}
+
+
+
+  public int capacity()
+  {return capacity;}
+
+
+  public int shards()
+  {return buffers.length;}
+
+
+
+  //Helper methods
+
+  private ByteBuffer shard(int id)
+  {
+    if (id < 0 || id >= capacity)
+      throw new IndexOutOfBoundsException("SessionStore - id("+id+") not in range [0,"+(capacity-1)+"]");
+    return buffers[id & (buffers.length-1)];
+  }
+
+
+  //The byte index of id's state in its shard
+  private int slot(int id)
+  {return (id >>> shardBits) << 2;}
+
+
+  private static void checkChannel(int channel)
+  {
+    if (channel < PackedColor.RED || channel > PackedColor.BLUE)
+      throw new IllegalArgumentException("SessionStore - channel("+channel+") not RED, GREEN, or BLUE");
+  }
+
+
+  //The number of shards (a power of 2) for shards, checking that each
+  //  one's buffer will be small enough
+  private static int stripes(int capacity, int shards)
+  {
+    if (capacity < 1)
+      throw new IllegalArgumentException("SessionStore - capacity("+capacity+") not positive");
+    if (shards < 1 || shards > (1 << 16))
+      throw new IllegalArgumentException("SessionStore - shards("+shards+") not in range [1,"+(1 << 16)+"]");
+    int stripes = Integer.highestOneBit(shards);
+    if (stripes < shards)
+      stripes <<= 1;
+    if (shardBytes(capacity,stripes) > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("SessionStore - capacity("+capacity+") too large for "+stripes+" shard(s)");
+    return stripes;
+  }
+
+
+  //The bytes in each of stripes shards, holding capacity sessions
+  private static long shardBytes(int capacity, int stripes)
+  {return 4L * ((capacity + (long)stripes - 1) / stripes);}
+
+
+  private static ByteBuffer[] allocate(int capacity, int stripes)
+  {
+    ByteBuffer[] buffers = new ByteBuffer[stripes];
+    for (int s = 0; s < stripes; s++)
+      buffers[s] = ByteBuffer.allocateDirect((int)shardBytes(capacity,stripes)).order(ByteOrder.nativeOrder());
+    return buffers;
+  }
+
+
+  //Map stripes shards, one after another, from file
+  private static ByteBuffer[] map(File file, int capacity, int stripes)
+    throws IOException
+  {
+    long         bytes   = shardBytes(capacity,stripes);
+    ByteBuffer[] buffers = new ByteBuffer[stripes];
+    try (RandomAccessFile raf     = new RandomAccessFile(file, "rw");
+         FileChannel      channel = raf.getChannel()) {
+      for (int s = 0; s < stripes; s++)
+        buffers[s] = channel.map(FileChannel.MapMode.READ_WRITE, s*bytes, bytes).order(ByteOrder.nativeOrder());
+    }
+    return buffers;
+  }
+
+
+
+  //Fields (all instance variables)
+  private final ByteBuffer[] buffers;     // one per shard
+  private final int          shardBits;   // log2(buffers.length)
+  private final int          capacity;
+
+  //Atomic access to the ints in a (native order) ByteBuffer, by byte index
+  private static final VarHandle STATE =
+    MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+}
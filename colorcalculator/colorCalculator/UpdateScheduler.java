@@ -0,0 +1,110 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : colorCalculator.UpdateScheduler
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   An UpdateScheduler coalesces requests to redraw a GUI: any thread can
+// call markDirty (as often as it likes), and the scheduler runs its render
+// action on the Event Dispatch Thread at most once per frame, no matter
+// how many requests arrived since the last time it ran. A burst of model
+// changes (e.g., from a script or a background thread) therefore costs
+// one redraw, not one per change.
+//
+//   markDirty allocates nothing: a request that arrives while another is
+// pending just returns, and the Runnable/Timer it schedules are created
+// once, when the scheduler is constructed.
+//
+// Future Plans   : none
+//
+// Program History:
+//  10/16/26: Operational (used by View)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package colorCalculator;
+
+
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.Timer;
+
+
+public class UpdateScheduler
+{
+
+  //render is run on the Event Dispatch Thread, at most once every
+  //  frameMillis milliseconds
+  public UpdateScheduler(Runnable render, int frameMillis)
+  {
+    this.render      = render;
+    this.frameMillis = frameMillis;
+
+    timer = new Timer(frameMillis, new ActionListener() {
+      public void actionPerformed(ActionEvent e)
+      {runRender();}
+    });
+    timer.setRepeats(false);
+  }
+
+
+
+  //Request a render (callable from any thread)
+  public void markDirty()
+  {
+    if (pending.compareAndSet(false,true))
+      EventQueue.invokeLater(kick);
+  }
+
+
+
+  //Helper methods (these run only on the Event Dispatch Thread)
+
+  //Render now, unless the last render was less than a frame ago; then
+  //  wait (in the timer) until the rest of the frame has passed
+  private void schedule()
+  {
+    long sinceLast = (System.nanoTime() - lastRender) / 1_000_000;
+    if (sinceLast >= frameMillis)
+      runRender();
+    else {
+      timer.setInitialDelay((int)(frameMillis - sinceLast));
+      timer.restart();
+    }
+  }
+
+
+  //Clear pending first: a change made while rendering requests another
+  //  render, so it is never lost
+  private void runRender()
+  {
+    pending.set(false);
+    lastRender = System.nanoTime();
+    render.run();
+  }
+
+
+
+  //Instance Variables
+
+  private final Runnable      render;
+  private final int           frameMillis;
+  private final Timer         timer;
+  private final AtomicBoolean pending = new AtomicBoolean(false);
+  private long                lastRender = System.nanoTime() - 1_000_000_000L;
+
+  private final Runnable kick = new Runnable() {
+    public void run()
+    {schedule();}
+  };
+}
@@ -32,6 +32,10 @@
 //
 // Program History:
 //  10/10/01: R. Pattis - Operational for 15-100
+//  10/16/26: View is a ModelListener (of any ColorModel)
+//  10/16/26: Updates coalesced on the EDT; redraws only what changed
+//  10/16/26: Palettes built per Channel
+//  10/16/26: Hex display shows the nearest named color
 //
 //
 //////////////////////////////////////////////////////////////////////////////
@@ -62,7 +66,7 @@ import java.awt.event.WindowEvent;
 
 
 
-public class View extends JFrame
+public class View extends JFrame implements ModelListener
 {
 
   //Trivial constructor (could be automatically supplied by Java)
@@ -71,7 +75,7 @@ public class View extends JFrame
 	
   //Refer to the model (used in the update method, to call the getDisplay
   //  method in the model) 
-	public void addModel(Model m)
+	public void addModel(ColorModel m)
 	{model = m;}
 
 	
@@ -115,13 +119,13 @@ public class View extends JFrame
     JPanel colors = new JPanel();
     colors.setLayout(new GridLayout(3,1));
     
-    red   = controller.getColorField("Red");
-    green = controller.getColorField("Green");
-    blue  = controller.getColorField("Blue");
+    red   = controller.getColorField(Channel.RED);
+    green = controller.getColorField(Channel.GREEN);
+    blue  = controller.getColorField(Channel.BLUE);
     
-    colors.add(createColorPalette("Red",red));
-    colors.add(createColorPalette("Green",green));
-    colors.add(createColorPalette("Blue",blue));
+    colors.add(createColorPalette(Channel.RED,red));
+    colors.add(createColorPalette(Channel.GREEN,green));
+    colors.add(createColorPalette(Channel.BLUE,blue));
 
     sideBySide.add(colors);
     
@@ -130,15 +134,17 @@ public class View extends JFrame
     //  hexidecimal value, and put it in on the right of sideBySide.
     JPanel show = new JPanel();
     show.setLayout(new GridLayout(2,1));
-    show.add(new JPanel(){
+    swatch = new JPanel(){
       public void paintComponent(Graphics g)
       {
+        super.paintComponent(g);
         if (colorSwatch == null)
           return;
         Dimension size = getSize();
         g.setColor(colorSwatch);
         g.fillRect(size.width/4,size.height/4,size.width/2,size.height/2);
-      }},"Center");
+      }};
+    show.add(swatch,"Center");
       
     hex = new JTextField(30);
     hex.setEditable(false);
@@ -153,7 +159,7 @@ public class View extends JFrame
 		Container contentPane = getContentPane();
 		contentPane.add(sideBySide, "Center");
 		
-		update();
+		render();
 	}
 
 
@@ -172,12 +178,12 @@ public class View extends JFrame
   //Creates the entire panel of textfields and buttons (using GridLayout)
   //It both creates the buttons (from the controller) and
   //  places them in the grid (for the view)
-  private JPanel createColorPalette(String color,JTextField colorField)
+  private JPanel createColorPalette(Channel color,JTextField colorField)
 	{
 		JPanel colorChoose = new JPanel();
 		colorChoose.setLayout(new GridLayout(2,2));
 		
-		colorChoose.add(new JLabel(color));
+		colorChoose.add(new JLabel(color.label));
 		JButton colorUp = controller.getColorButton(color,+10);
 		buttonSetup(colorChoose,colorUp,"+10");
 		colorChoose.add(colorField);
@@ -192,25 +198,55 @@ public class View extends JFrame
   //  view the model by calling its getRed/getGreen/getBlue methods.
   //This seems a bit circular, but it isn't (you need to know
   //   more about the MVC pattern to understand better)
-	void update()
+  //The model may call update from any thread, many times in a row: update
+  //  just marks the view dirty, and the scheduler calls render (on the
+  //  Event Dispatch Thread) at most once per frame
+	public void update()
+	{scheduler.markDirty();}
+
+
+  //Display the model's current state; only the swatch (and only the
+  //  text fields whose text differs from what it should be) are redrawn
+	void render()
 	{
-     int r = model.getRed();
-     int g = model.getGreen();
-     int b = model.getBlue();
+     //One snapshot, so r/g/b match even if other threads change the model
+     ColorSnapshot c = model.snapshot();
+     int r = c.getRed();
+     int g = c.getGreen();
+     int b = c.getBlue();
 
-     colorSwatch = null;
-     if (r!=-1 && g!=-1 && b!=-1)
-       colorSwatch = new Color(r,g,b);
+     if (c.getState() != renderedState) {
+       renderedState = c.getState();
+       colorSwatch = null;
+       if (c.isComplete())
+         colorSwatch = new Color(r,g,b);
+       swatch.repaint();
+       setTextIfChanged(hex, "Hex: "+ (colorSwatch != null ? c.getHex() + " (" + nearestName(c) + ")"
+                                                           : "Unknown"   ) );
+     }
      
-     red.setText  (r != -1 ? ""+r : "Enter [0,255]");
-     green.setText(g != -1 ? ""+g : "Enter [0,255]");
-     blue.setText (b != -1 ? ""+b : "Enter [0,255]");
-     hex.setText  ("Hex: "+ (colorSwatch != null ? ""+model.getHex()
-                                                 : "Unknown"   ) );
-		 repaint();
+     //Always checked: the user may have typed over a field's value
+     setTextIfChanged(red,   r != -1 ? ""+r : "Enter [0,255]");
+     setTextIfChanged(green, g != -1 ? ""+g : "Enter [0,255]");
+     setTextIfChanged(blue,  b != -1 ? ""+b : "Enter [0,255]");
 	}
 
 
+  //The name nearest to snapshot c's color (not the model's current one,
+  //  which may have changed since c was taken)
+  private String nearestName(ColorSnapshot c)
+  {return model.getColorNames().nearestName(PackedColor.rgb(c.getState()));}
+
+
+  //Setting a field's text fires events and revalidates the field, so do
+  //  it only when the text actually changes
+  private static void setTextIfChanged(JTextField field, String text)
+  {
+    if (!text.equals(field.getText()))
+      field.setText(text);
+  }
+
+
 
 
 
@@ -218,9 +254,14 @@ public class View extends JFrame
   
 
   private Controller controller;  //Controller creates button in View
-	private Model      model;       //Model tells update what to display
+	private ColorModel model;       //Model tells update what to display
 	
 	Font       buttonFont;          //Information shared by multiple methods
 	JTextField red, green, blue, hex;
+	JPanel     swatch;
 	Color      colorSwatch;
+	int        renderedState = -1;  //Model state last rendered (-1: none yet)
+
+	private final UpdateScheduler scheduler =
+	  new UpdateScheduler(new Runnable() {public void run() {render();}}, 16);  //~60 frames/second
  }
@@ -0,0 +1,342 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : BigModularCounter
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   BigModularCounter objects represent values in some modulus of any
+// size (stored as a BigInteger). They can be incremented, decremented,
+// and tested (various ways), exactly like ModularCounter objects.
+//
+//
+// Known Bugs (if any): None
+//
+// Future Plans       : none
+//
+// Program History:
+//  10/16/26: Operational (BigInteger version of ModularCounter)
+//  10/16/26: prompt stops (does not retry) at end of input
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package com.ivanaranda;
+
+import java.math.BigInteger;
+
+/**
+ * Objects constructed from the BigModularCounter class represent integral
+ *   (non-negative) values under an arbitrarily large modulus: they always
+ *   lie in the range <code>[0,modulus-1]</code>.
+ * Such counters can be incremented and decremented; incrementing a
+ *   value to the modulus resets its value to zero; decrementing a
+ *   value from 0 resets its value to <code>modulus-1</code>.
+ * Each <code>BigModularCounter</code> obeys the following class invariants
+ *   <ul>
+ *     <li>The modulus must be &gt; 0
+ *     <li>The value must be in the range <code>[0,modulus-1]</code>
+ *   </ul>
+ * Multi-step operations do a single <code>BigInteger</code> addition and
+ *   reduction, independent of the size of <code>delta</code>.
+*/
+public class BigModularCounter implements Counter {
+
+
+	/**
+	 * Constructs a <code>BigModularCounter</code> object, specifying the
+	 *   initial value and modulus.
+	 * It establishes the following class invariants
+	 *   <ul>
+	 *     <li>The modulus must be &gt 0
+	 *     <li>The value must be in the range <code>[0,modulus-1]</code>
+	 *   </ul>
+	 *
+	 * @param  value specifies the value of the modular number
+	 * @param  modulus specifies the modulus of the modular number
+	 *
+	 * @throws IllegalArgumentException if <code>modulus</b> is &lt= 0 or
+	 *           <code>value</code> is outside the appropriate range
+	*/
+  public BigModularCounter (BigInteger value, BigInteger modulus)
+    throws IllegalArgumentException
+  {
+    if (modulus.signum() < 1)
+      throw new IllegalArgumentException("BigModularCounter - modulus("+modulus+") non-positive");
+    if (value.signum() < 0 || value.compareTo(modulus) >= 0)
+      throw new IllegalArgumentException("BigModularCounter - value("+value+") not in range [0,"+modulus.subtract(BigInteger.ONE)+"]");
+
+    this.value   = value;
+    this.modulus = modulus;
+  }
+
+
+
+	/**
+	 * Constructs a <code>BigModularCounter</code> object, specifying the
+	 *   modulus only (the value is zero).
+	 *
+	 * @param  modulus specifies the modulus of the modular number
+	*/
+  public BigModularCounter (BigInteger modulus)
+  {this(BigInteger.ZERO,modulus);}
+
+
+
+	/**
+	 * Returns the value of this <code>BigModularCounter</code>.
+	 *
+	 * @return the value of this <code>BigModularCounter</code>
+	*/
+  public BigInteger getValue()
+  {return value;}
+
+
+
+	/**
+	 * Returns the modulus of this <code>BigModularCounter</code>.
+	 *
+	 * @return the modulus of this <code>BigModularCounter</code>
+	*/
+  public BigInteger getModulus()
+  {return modulus;}
+
+
+
+	/**
+	 * Returns the value of this <code>BigModularCounter</code> (the same
+	 *   as <code>getValue</code>).
+	 *
+	 * @return the value of this <code>BigModularCounter</code>
+	*/
+  public BigInteger bigValue()
+  {return value;}
+
+
+
+	/**
+	 * Returns the modulus of this <code>BigModularCounter</code> (the same
+	 *   as <code>getModulus</code>).
+	 *
+	 * @return the modulus of this <code>BigModularCounter</code>
+	*/
+  public BigInteger bigModulus()
+  {return modulus;}
+
+
+
+	/**
+	 * Returns whether or not this <code>BigModularCounter</b> is equal to
+	 *   <code>other</code>.
+	 *
+	 * @param  other specifies the other <code>BigModularCounter</b> in the
+	 *           equality check
+	 *
+	 * @return whether or not this <code>BigModularCounter</b> is equal to
+	 *   <code>other</code>
+	*/
+  public boolean equals(Object other)
+  {
+    if ( !(other instanceof BigModularCounter) )
+       return false;
+    if (this == other)
+      return true;
+
+    BigModularCounter otherMC = (BigModularCounter)other;
+
+    return value.equals(otherMC.value) && modulus.equals(otherMC.modulus);
+  }
+
+
+
+	/**
+	 * Returns a hash code for this <code>BigModularCounter</code>,
+	 *   consistent with <code>equals</code>.
+	 *
+	 * @return a hash code for this <code>BigModularCounter</code>
+	*/
+  public int hashCode()
+  {return 31*value.hashCode() + modulus.hashCode();}
+
+
+
+	/**
+	 * Returns whether or not this <code>BigModularCounter</b>'s value is
+	 *   equal to zero (independent of the modulus).
+	 *
+	 * @return whether or not this <code>BigModularCounter</b>'s value is
+	 *   equal to zero (independent of the modulus)
+	*/
+  public boolean isZero()
+  {return value.signum() == 0;}
+
+
+
+	/**
+	 * Compares its two arguments for order.
+	 * Returns a negative integer, zero, or a positive integer as the
+	 *   first argument is less than, equal to, or greater than the
+	 *   second.
+	 *
+	 * @return whether this <code>BigModularCounter</b>'s value is
+	 *   less than, equal to, or greater than <code>other</code>'s
+	 *   value (independent of the moduls)
+	*/
+  public int compareTo(BigModularCounter mc)
+  {return value.compareTo(mc.value);}
+
+
+
+	/**
+	 * Returns a <code>String<code> representation of the state of this
+	 *  <code>BigModularCounter</code>: value (mod modulus).
+	 * E.g.: 6 (mod 10)
+	 *
+	 * @return a <code>String<code> representation of the state of this
+	 *  <code>BigModularCounter</code>: value (mod modulus)
+	*/
+  public String toString ()
+  {return value + "(mod " + modulus + ")";}
+
+
+
+	/**
+	 * Reset this <code>BigModularCounter</code> to store the value 0.
+	*/
+  public void reset()
+  {value = BigInteger.ZERO;}
+
+
+
+	/**
+	 * Increment this <code>BigModularCounter</code> by 1 (with rollover to
+	 *   0 beyond modulus-1).
+	*/
+  public void inc()
+  {
+    value = value.add(BigInteger.ONE);
+    if (value.equals(modulus))
+      value = BigInteger.ZERO;
+  }
+
+
+
+	/**
+	 * Increment this <code>BigModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1).
+	 *
+	 * @param  delta specifies the amount to increment by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</b> is &lt 0
+	*/
+  public void inc (long delta)
+    throws IllegalArgumentException
+  {
+    if (delta < 0)
+      throw new IllegalArgumentException("BigModularCounter: inc - delta("+delta+") non-positive");
+    update(BigInteger.valueOf(delta));
+  }
+
+
+
+	/**
+	 * Decrement this <code>BigModularCounter</code> by 1 (with rollover to
+	 *   modulus-1 beyond 0).
+	*/
+  public void dec()
+  {
+    if (value.signum() == 0)
+      value = modulus.subtract(BigInteger.ONE);
+    else
+      value = value.subtract(BigInteger.ONE);
+  }
+
+
+
+	/**
+	 * Decrement this <code>BigModularCounter</code> by <code>delta</code>
+	 *  (with rollover to modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to decrement by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</b> is &lt 0
+	*/
+  public void dec (long delta)
+    throws IllegalArgumentException
+  {
+    if (delta < 0)
+      throw new IllegalArgumentException("BigModularCounter: dec - delta("+delta+") non-positive");
+    update(BigInteger.valueOf(delta).negate());
+  }
+
+
+
+	/**
+	 * IncrementDecrement this <code>BigModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1/modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to increment/decrement by
+	*/
+  public void update (long delta)
+  {update(BigInteger.valueOf(delta));}
+
+
+
+	/**
+	 * IncrementDecrement this <code>BigModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1/modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to increment/decrement by
+	*/
+  public void update (BigInteger delta)
+  {value = value.add(delta).mod(modulus);}
+
+
+
+	/**
+	 * Returns a new <code>BigModularCounter</code> after prompting the user
+	 *   for its value and modulus.
+	 * If an illegal value is entered, the user is reprompted
+	 * For example, if we write <code>BigModularCounter.prompt("Enter Key")</code>
+	 *   an interaction on the console screen might look like
+	 * <code><pre>  Enter Key
+	 *    Enter value  : 2
+	 *    Enter modulus: 340282366920938463463374607431768211456</pre></code>
+	 *
+	 * @param message specifies the message with which to prompt the user
+   *
+	 * @return a new <code>BigModularCounter</code> after prompting the user
+	 *   for its value and modulus.
+	*/
+  public static BigModularCounter prompt (String message)
+  {
+    System.out.println(message);
+    for (;;)
+      try{
+        BigInteger value   = Prompt.forBigInteger("  Enter value  ");
+        BigInteger modulus = Prompt.forBigInteger("  Enter modulus");
+        return new BigModularCounter(value,modulus);
+      }catch (IllegalArgumentException e)   //End of input (UncheckedIOException) is not caught
+        {System.out.println("Illegal BigModularCounter entered; please try again");}
+  }
+
+
+
+	/**
+	 * Stores the value of the <code>BigModularCounter</code>.
+	 * It must always lie in the range <code>[0,modulus-1]</code>.
+	*/
+  private BigInteger value;
+
+
+	/**
+	 * Stores the moduls of the <code>BigModularCounter</code>.
+	 * It must always be positive.
+	*/
+  private BigInteger modulus;
+}
@@ -0,0 +1,457 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : ByteTokenizer
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   A ByteTokenizer splits bytes (from an InputStream, a channel, or an
+// array) into whitespace-separated tokens or into lines, reading them in
+// large blocks into one reusable buffer. A token is not copied out of the
+// buffer (or turned into a String) unless asked: it can be compared with
+// a String, or its value as an int or double computed, directly from
+// its bytes. Bad numbers are reported by returned values, not exceptions.
+// So reading millions of tokens allocates (almost) nothing.
+//
+//
+// Known Bugs (if any): None
+//
+// Future Plans       : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: hasMore (for Prompt)
+//  10/16/26: nextTokenOnLine; intValue accepts leading zeros (like parseInt)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package com.ivanaranda;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A <code>ByteTokenizer</code> reads tokens (maximal runs of bytes that
+ *   are not whitespace: bytes above <code>' '</code>) or lines from a
+ *   source of bytes.
+ * <p>
+ * After <code>nextToken</code> or <code>nextLine</code> returns
+ *   <code>true</code>, the token's bytes are
+ *   <code>buffer()[start()..start()+length()-1]</code>; they are valid
+ *   only until the next call of either method.
+ * <p>
+ * A <code>ByteTokenizer</code> is not thread-safe.
+*/
+public final class ByteTokenizer {
+
+
+	/**
+	 * Constructs a <code>ByteTokenizer</code> reading from an
+	 *   <code>InputStream</code>.
+	 *
+	 * @param  in specifies the source of bytes
+	*/
+  public ByteTokenizer (InputStream in)
+  {
+    this.in = in;
+    buffer  = new byte[BUFFER_BYTES];
+  }
+
+
+
+	/**
+	 * Constructs a <code>ByteTokenizer</code> reading from a
+	 *   <code>ReadableByteChannel</code> (e.g., a <code>FileChannel</code>
+	 *   or a <code>Pipe.SourceChannel</code>).
+	 *
+	 * @param  channel specifies the source of bytes
+	*/
+  public ByteTokenizer (ReadableByteChannel channel)
+  {
+    this.channel = channel;
+    buffer       = new byte[BUFFER_BYTES];
+    wrapped      = ByteBuffer.wrap(buffer);
+  }
+
+
+
+	/**
+	 * Constructs a <code>ByteTokenizer</code> reading the bytes
+	 *   <code>bytes[off..off+len-1]</code> (which are not copied).
+	 *
+	 * @param  bytes specifies the array of bytes
+	 * @param  off specifies the index of the first byte
+	 * @param  len specifies the number of bytes
+	*/
+  public ByteTokenizer (byte[] bytes, int off, int len)
+  {
+    if (off < 0 || len < 0 || off + len > bytes.length)
+      throw new IndexOutOfBoundsException("ByteTokenizer - range not in array");
+    buffer   = bytes;
+    position = start = end = off;
+    limit    = off + len;
+    atEnd    = true;
+  }
+
+
+
+	/**
+	 * Advances to the next token (skipping whitespace, including line
+	 *   ends).
+	 *
+	 * @return whether there was another token (<code>false</code> at the
+	 *   end of the bytes)
+	 *
+	 * @throws IOException if reading the source fails
+	*/
+  public boolean nextToken ()
+    throws IOException
+  {
+    for (;;) {
+      while (position < limit && buffer[position] <= ' ')
+        position++;
+      if (position < limit)
+        break;
+      start = position;
+      if (!fill()) {
+        end = start;
+        return false;
+      }
+    }
+
+    start = position;
+    for (;;) {
+      while (position < limit && buffer[position] > ' ')
+        position++;
+      if (position < limit || !fill())
+        break;
+    }
+    end = position;
+    return true;
+  }
+
+
+
+	/**
+	 * Advances to the next token on the current line (skipping whitespace,
+	 *   but not the line end). At the line end (or the end of the bytes)
+	 *   no token is read, and the line end is not skipped: a following
+	 *   <code>nextLine</code> reads the (empty) rest of this line.
+	 *
+	 * @return whether there was another token on the current line
+	 *
+	 * @throws IOException if reading the source fails
+	*/
+  public boolean nextTokenOnLine ()
+    throws IOException
+  {
+    for (;;) {
+      while (position < limit && buffer[position] <= ' ' && buffer[position] != '\n')
+        position++;
+      if (position < limit)
+        break;
+      start = position;
+      if (!fill()) {
+        end = start;
+        return false;
+      }
+    }
+    if (buffer[position] == '\n') {
+      start = end = position;
+      return false;
+    }
+    return nextToken();
+  }
+
+
+
+	/**
+	 * Advances to the next line: all the bytes up to the next line end
+	 *   (<code>'\n'</code>, or <code>"\r\n"</code>), which is skipped.
+	 * After <code>nextToken</code>, this is the rest of the token's line.
+	 *
+	 * @return whether there was another line (<code>false</code> at the
+	 *   end of the bytes)
+	 *
+	 * @throws IOException if reading the source fails
+	*/
+  public boolean nextLine ()
+    throws IOException
+  {
+    start = position;
+    for (;;) {
+      while (position < limit && buffer[position] != '\n')
+        position++;
+      if (position < limit || !fill())
+        break;
+    }
+    if (position == start && position == limit) {
+      end = start;
+      return false;
+    }
+
+    end = position;
+    if (position < limit)
+      position++;                     //Skip the '\n'
+    if (end > start && buffer[end-1] == '\r')
+      end--;
+    return true;
+  }
+
+
+
+	/**
+	 * Returns whether or not there are more bytes to read (waiting for
+	 *   more from the source, if necessary). The current token is
+	 *   forgotten.
+	 *
+	 * @return whether or not there are more bytes to read
+	 *
+	 * @throws IOException if reading the source fails
+	*/
+  public boolean hasMore ()
+    throws IOException
+  {
+    start = end = position;
+    return position < limit || fill();
+  }
+
+
+
+	/**
+	 * Removes whitespace from both ends of the current token (useful after
+	 *   <code>nextLine</code>).
+	*/
+  public void trim ()
+  {
+    while (start < end && buffer[start] <= ' ')
+      start++;
+    while (end > start && buffer[end-1] <= ' ')
+      end--;
+  }
+
+
+
+	/**
+	 * Returns the array storing the current token.
+	 *
+	 * @return the array storing the current token (at
+	 *   <code>start()</code>)
+	*/
+  public byte[] buffer ()
+  {return buffer;}
+
+
+	/**
+	 * Returns the index in <code>buffer()</code> of the current token.
+	 *
+	 * @return the index in <code>buffer()</code> of the current token
+	*/
+  public int start ()
+  {return start;}
+
+
+	/**
+	 * Returns the number of bytes in the current token.
+	 *
+	 * @return the number of bytes in the current token
+	*/
+  public int length ()
+  {return end - start;}
+
+
+
+	/**
+	 * Returns whether or not the current token is the same as
+	 *   <code>s</code> (whose chars are compared with the token's bytes).
+	 *
+	 * @param  s specifies the <code>String</code> to compare with
+	 *
+	 * @return whether or not the current token is the same as
+	 *   <code>s</code>
+	*/
+  public boolean tokenEquals (String s)
+  {
+    if (s.length() != end - start)
+      return false;
+    for (int i = 0; i < s.length(); i++)
+      if (s.charAt(i) != (buffer[start+i] & 0xFF))
+        return false;
+    return true;
+  }
+
+
+
+	/**
+	 * Returns the current token as a <code>String</code> (decoded with
+	 *   the platform's default charset).
+	 *
+	 * @return the current token as a <code>String</code>
+	*/
+  public String token ()
+  {return new String(buffer, start, end - start);}
+
+
+
+	/**
+	 * Returns the value of the current token as an <code>int</code>, if it
+	 *   is one (accepting what <code>Integer.parseInt</code> accepts:
+	 *   an optional sign followed by decimal digits).
+	 *
+	 * @return the value of the current token, or <code>NOT_A_NUMBER</code>
+	 *   if it is not a legal <code>int</code>
+	*/
+  public long intValue ()
+  {
+    int i = start;
+    boolean negative = false;
+    if (i < end && (buffer[i] == '-' || buffer[i] == '+'))
+      negative = (buffer[i++] == '-');
+    if (i == end)
+      return NOT_A_NUMBER;
+    while (i < end-1 && buffer[i] == '0')
+      i++;                              //Leading zeros (keeping the last digit)
+    if (end - i > 10)
+      return NOT_A_NUMBER;
+
+    long value = 0;
+    for (; i < end; i++) {
+      int digit = buffer[i] - '0';
+      if (digit < 0 || digit > 9)
+        return NOT_A_NUMBER;
+      value = 10*value + digit;
+    }
+    if (negative)
+      value = -value;
+    return (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_A_NUMBER : value);
+  }
+
+
+
+	/**
+	 * Returns the value of the current token as a <code>double</code>, if
+	 *   it is one (accepting what <code>Double.parseDouble</code>
+	 *   accepts).
+	 * Simple decimals (like <code>-12.375</code>, with at most 15 digits)
+	 *   are converted directly from the token's bytes; others are
+	 *   converted by <code>Double.parseDouble</code>.
+	 *
+	 * @return the value of the current token, or <code>Double.NaN</code>
+	 *   if it is not a legal <code>double</code> (or is <code>NaN</code>)
+	*/
+  public double doubleValue ()
+  {
+    int i = start;
+    boolean negative = false;
+    if (i < end && (buffer[i] == '-' || buffer[i] == '+'))
+      negative = (buffer[i++] == '-');
+
+    long mantissa = 0;
+    int  digits = 0, fraction = -1;        //fraction: digits after the '.'
+    for (; i < end; i++) {
+      int b = buffer[i];
+      if (b == '.' && fraction == -1)
+        fraction = 0;
+      else if ('0' <= b && b <= '9') {
+        mantissa = 10*mantissa + (b - '0');
+        digits++;
+        if (fraction != -1)
+          fraction++;
+      } else
+        break;
+    }
+
+    //Exact: both mantissa and 10^fraction are exact doubles, so one
+    //  (correctly rounded) division gives the correctly rounded value
+    if (i == end && digits > 0 && digits <= 15) {
+      double value = (fraction <= 0 ? mantissa : mantissa / POWERS_OF_10[fraction]);
+      return (negative ? -value : value);
+    }
+
+    try {
+      return Double.parseDouble(token());
+    } catch (NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+
+
+
+	/**
+	 * Returned by <code>intValue</code> for a token that is not a legal
+	 *   <code>int</code> (no <code>int</code> has this value).
+	*/
+  public static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+
+
+  //Read more bytes into the buffer, keeping the current token (moving it
+  //  to the front of the buffer, or into a bigger one if it fills this
+  //  one); return whether any bytes were read
+  private boolean fill ()
+    throws IOException
+  {
+    if (atEnd)
+      return false;
+
+    if (start > 0) {
+      System.arraycopy(buffer, start, buffer, 0, limit - start);
+      limit    -= start;
+      position -= start;
+      end      -= start;
+      start     = 0;
+    }
+    if (limit == buffer.length) {
+      byte[] bigger = new byte[2*buffer.length];
+      System.arraycopy(buffer, 0, bigger, 0, limit);
+      buffer = bigger;
+      if (channel != null)
+        wrapped = ByteBuffer.wrap(buffer);
+    }
+
+    int n;
+    if (in != null)
+      n = in.read(buffer, limit, buffer.length - limit);
+    else {
+      wrapped.limit(buffer.length).position(limit);
+      do
+        n = channel.read(wrapped);
+      while (n == 0);
+    }
+    if (n < 0) {
+      atEnd = true;
+      return false;
+    }
+    limit += n;
+    return true;
+  }
+
+
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  //Exact powers of 10, as doubles
+  private static final double[] POWERS_OF_10 = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+  };
+
+
+  //Instance Variables
+  private InputStream         in;           //One of in/channel is the source,
+  private ReadableByteChannel channel;      //  or neither (an array)
+  private ByteBuffer          wrapped;      //buffer, for channel reads
+
+  private byte[]  buffer;
+  private int     position;                 //Next byte to examine
+  private int     limit;                    //End of the bytes read
+  private int     start, end;               //The current token
+  private boolean atEnd;                    //No more bytes to read
+}
@@ -0,0 +1,133 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Interface      : Counter
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   Counter specifies the operations shared by all the modular counters
+// in this package (ModularCounter, LongModularCounter, BigModularCounter).
+// Code written against this interface can switch to the cheapest
+// representation for a given modulus without changing its call sites.
+//
+//
+// Known Bugs (if any): None
+//
+// Future Plans       : none
+//
+// Program History:
+//  10/16/26: Extracted from ModularCounter
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package com.ivanaranda;
+
+import java.math.BigInteger;
+
+/**
+ * A <code>Counter</code> represents an integral (non-negative) value
+ *   under a modulus: it always lies in the range
+ *   <code>[0,modulus-1]</code>.
+ * Incrementing a value to the modulus resets its value to zero;
+ *   decrementing a value from 0 resets its value to <code>modulus-1</code>.
+ * <p>
+ * All the multi-step operations (<code>inc(delta)</code>,
+ *   <code>dec(delta)</code>, <code>update(delta)</code>) take constant
+ *   time, independent of the size of <code>delta</code>.
+*/
+public interface Counter {
+
+
+	/**
+	 * Returns the value of this <code>Counter</code> as a
+	 *   <code>BigInteger</code> (which can represent the value of
+	 *   every kind of counter).
+	 *
+	 * @return the value of this <code>Counter</code>
+	*/
+  BigInteger bigValue();
+
+
+
+	/**
+	 * Returns the modulus of this <code>Counter</code> as a
+	 *   <code>BigInteger</code>.
+	 *
+	 * @return the modulus of this <code>Counter</code>
+	*/
+  BigInteger bigModulus();
+
+
+
+	/**
+	 * Returns whether or not this <code>Counter</code>'s value is
+	 *   equal to zero (independent of the modulus).
+	 *
+	 * @return whether or not this <code>Counter</code>'s value is
+	 *   equal to zero
+	*/
+  boolean isZero();
+
+
+
+	/**
+	 * Reset this <code>Counter</code> to store the value 0.
+	*/
+  void reset();
+
+
+
+	/**
+	 * Increment this <code>Counter</code> by 1 (with rollover to
+	 *   0 beyond modulus-1).
+	*/
+  void inc();
+
+
+
+	/**
+	 * Increment this <code>Counter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1).
+	 *
+	 * @param  delta specifies the amount to increment by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</code> is &lt; 0
+	*/
+  void inc(long delta) throws IllegalArgumentException;
+
+
+
+	/**
+	 * Decrement this <code>Counter</code> by 1 (with rollover to
+	 *   modulus-1 beyond 0).
+	*/
+  void dec();
+
+
+
+	/**
+	 * Decrement this <code>Counter</code> by <code>delta</code>
+	 *  (with rollover to modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to decrement by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</code> is &lt; 0
+	*/
+  void dec(long delta) throws IllegalArgumentException;
+
+
+
+	/**
+	 * Increment/Decrement this <code>Counter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1/modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to increment/decrement by
+	*/
+  void update(long delta);
+}
@@ -0,0 +1,320 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : LongModularCounter
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   LongModularCounter objects represent values in some modulus that
+// does not fit in an int. They can be incremented, decremented, and
+// tested (various ways), exactly like ModularCounter objects.
+//
+//
+// Known Bugs (if any): None
+//
+// Future Plans       : none
+//
+// Program History:
+//  10/16/26: Operational (long version of ModularCounter)
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package com.ivanaranda;
+
+import java.math.BigInteger;  //For Counter's bigValue/bigModulus
+
+/**
+ * Objects constructed from the LongModularCounter class represent integral
+ *   (non-negative) values under a <code>long</code> modulus: they always
+ *   lie in the range <code>[0,modulus-1]</code>.
+ * Such counters can be incremented and decremented; incrementing a
+ *   value to the modulus resets its value to zero; decrementing a
+ *   value from 0 resets its value to <code>modulus-1</code>.
+ * Each <code>LongModularCounter</code> obeys the following class invariants
+ *   <ul>
+ *     <li>The modulus must be &gt; 0
+ *     <li>The value must be in the range <code>[0,modulus-1]</code>
+ *   </ul>
+ * All operations take constant time, and none of them can overflow (even
+ *   when the modulus is close to <code>Long.MAX_VALUE</code>).
+*/
+public class LongModularCounter implements Counter {
+
+
+	/**
+	 * Constructs a <code>LongModularCounter</code> object, specifying the
+	 *   initial value and modulus.
+	 * It establishes the following class invariants
+	 *   <ul>
+	 *     <li>The modulus must be &gt 0
+	 *     <li>The value must be in the range <code>[0,modulus-1]</code>
+	 *   </ul>
+	 *
+	 * @param  value specifies the value of the modular number
+	 * @param  modulus specifies the modulus of the modular number
+	 *
+	 * @throws IllegalArgumentException if <code>modulus</b> is &lt= 0 or
+	 *           <code>value</code> is outside the appropriate range
+	*/
+  public LongModularCounter (long value, long modulus)
+    throws IllegalArgumentException
+  {
+    if (modulus < 1)
+      throw new IllegalArgumentException("LongModularCounter - modulus("+modulus+") non-positive");
+    if (value < 0 || value >= modulus)
+      throw new IllegalArgumentException("LongModularCounter - value("+value+") not in range [0,"+(modulus-1)+"]");
+
+    this.value   = value;
+    this.modulus = modulus;
+  }
+
+
+
+	/**
+	 * Constructs a <code>LongModularCounter</code> object, specifying the
+	 *   modulus only (the value is zero).
+	 *
+	 * @param  modulus specifies the modulus of the modular number
+	*/
+  public LongModularCounter (long modulus)
+  {this(0,modulus);}
+
+
+
+	/**
+	 * Returns the value of this <code>LongModularCounter</code>.
+	 *
+	 * @return the value of this <code>LongModularCounter</code>
+	*/
+  public long getValue()
+  {return value;}
+
+
+
+	/**
+	 * Returns the modulus of this <code>LongModularCounter</code>.
+	 *
+	 * @return the modulus of this <code>LongModularCounter</code>
+	*/
+  public long getModulus()
+  {return modulus;}
+
+
+
+	/**
+	 * Returns the value of this <code>LongModularCounter</code> as a
+	 *   <code>BigInteger</code>.
+	 *
+	 * @return the value of this <code>LongModularCounter</code>
+	*/
+  public BigInteger bigValue()
+  {return BigInteger.valueOf(value);}
+
+
+
+	/**
+	 * Returns the modulus of this <code>LongModularCounter</code> as a
+	 *   <code>BigInteger</code>.
+	 *
+	 * @return the modulus of this <code>LongModularCounter</code>
+	*/
+  public BigInteger bigModulus()
+  {return BigInteger.valueOf(modulus);}
+
+
+
+	/**
+	 * Returns whether or not this <code>LongModularCounter</b> is equal to
+	 *   <code>other</code>.
+	 *
+	 * @param  other specifies the other <code>LongModularCounter</b> in the
+	 *           equality check
+	 *
+	 * @return whether or not this <code>LongModularCounter</b> is equal to
+	 *   <code>other</code>
+	*/
+  public boolean equals(Object other)
+  {
+    if ( !(other instanceof LongModularCounter) )
+       return false;
+    if (this == other)
+      return true;
+
+    LongModularCounter otherMC = (LongModularCounter)other;
+
+    return value == otherMC.value && modulus == otherMC.modulus;
+  }
+
+
+
+	/**
+	 * Returns a hash code for this <code>LongModularCounter</code>,
+	 *   consistent with <code>equals</code>.
+	 *
+	 * @return a hash code for this <code>LongModularCounter</code>
+	*/
+  public int hashCode()
+  {return 31*Long.hashCode(value) + Long.hashCode(modulus);}
+
+
+
+	/**
+	 * Returns whether or not this <code>LongModularCounter</b>'s value is
+	 *   equal to zero (independent of the modulus).
+	 *
+	 * @return whether or not this <code>LongModularCounter</b>'s value is
+	 *   equal to zero (independent of the modulus)
+	*/
+  public boolean isZero()
+  {return value == 0;}
+
+
+
+	/**
+	 * Compares its two arguments for order.
+	 * Returns a negative integer, zero, or a positive integer as the
+	 *   first argument is less than, equal to, or greater than the
+	 *   second.
+	 *
+	 * @return whether this <code>LongModularCounter</b>'s value is
+	 *   less than, equal to, or greater than <code>other</code>'s
+	 *   value (independent of the moduls)
+	*/
+  public int compareTo(LongModularCounter mc)
+  {return Long.compare(value,mc.value);}
+
+
+
+	/**
+	 * Returns a <code>String<code> representation of the state of this
+	 *  <code>LongModularCounter</code>: value (mod modulus).
+	 * E.g.: 6 (mod 10)
+	 *
+	 * @return a <code>String<code> representation of the state of this
+	 *  <code>LongModularCounter</code>: value (mod modulus)
+	*/
+  public String toString ()
+  {return value + "(mod " + modulus + ")";}
+
+
+
+	/**
+	 * Reset this <code>LongModularCounter</code> to store the value 0.
+	*/
+  public void reset()
+  {value = 0;}
+
+
+
+	/**
+	 * Increment this <code>LongModularCounter</code> by 1 (with rollover to
+	 *   0 beyond modulus-1).
+	*/
+  public void inc()
+  {
+    if (value < modulus-1)
+      value++;
+    else
+      value = 0;
+  }
+
+
+
+	/**
+	 * Increment this <code>LongModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1).
+	 *
+	 * @param  delta specifies the amount to increment by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</b> is &lt 0
+	*/
+  public void inc (long delta)
+    throws IllegalArgumentException
+  {
+    if (delta < 0)
+      throw new IllegalArgumentException("LongModularCounter: inc - delta("+delta+") non-positive");
+    advance(delta % modulus);
+  }
+
+
+
+	/**
+	 * Decrement this <code>LongModularCounter</code> by 1 (with rollover to
+	 *   modulus-1 beyond 0).
+	*/
+  public void dec()
+  {
+    if (value == 0)
+      value = modulus-1;
+    else
+      value--;
+  }
+
+
+
+	/**
+	 * Decrement this <code>LongModularCounter</code> by <code>delta</code>
+	 *  (with rollover to modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to decrement by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</b> is &lt 0
+	*/
+  public void dec (long delta)
+    throws IllegalArgumentException
+  {
+    if (delta < 0)
+      throw new IllegalArgumentException("LongModularCounter: dec - delta("+delta+") non-positive");
+    long steps = delta % modulus;
+    advance(steps == 0 ? 0 : modulus - steps);
+  }
+
+
+
+	/**
+	 * IncrementDecrement this <code>LongModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1/modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to increment/decrement by
+	*/
+  public void update (long delta)
+  {advance(Math.floorMod(delta, modulus));}
+
+
+
+	/**
+	 * Advance this <code>LongModularCounter</code> by <code>steps</code>,
+	 *   which must already be reduced to the range <code>[0,modulus-1]</code>.
+	 * The sum is never computed directly, so it cannot overflow.
+	 *
+	 * @param  steps specifies the (reduced) amount to increment by
+	*/
+  private void advance (long steps)
+  {
+    if (value >= modulus - steps)
+      value -= modulus - steps;
+    else
+      value += steps;
+  }
+
+
+
+	/**
+	 * Stores the value of the <code>LongModularCounter</code>.
+	 * It must always lie in the range <code>[0,modulus-1]</code>.
+	*/
+  private long value;
+
+
+	/**
+	 * Stores the moduls of the <code>LongModularCounter</code>.
+	 * It must always be positive.
+	*/
+  private long modulus;
+}
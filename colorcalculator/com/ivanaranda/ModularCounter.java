@@ -26,6 +26,9 @@
 // Program History:
 //   9/18/01: R. Pattis - Operational for 15-100
 //   8/22/04: R. Pattis - Document via Javadoc
+//  10/16/26: Constant time inc/dec/update; implements Counter
+//  10/16/26: hashCode (consistent with equals); toValue
+//  10/16/26: prompt stops (does not retry) at end of input
 //
 //
 //////////////////////////////////////////////////////////////////////////////
@@ -34,6 +37,8 @@
 
 package com.ivanaranda;
 
+import java.math.BigInteger;  //For Counter's bigValue/bigModulus
+
 /** 
  * Objects constructed from the ModularCounter class represent integral
  *   (non-negative) values under a modulus: they always lie in the range
@@ -46,8 +51,12 @@ package com.ivanaranda;
  *     <li>The modulus must be &gt; 0
  *     <li>The value must be in the range <code>[0,modulus-1]</code>
  *   </ul>
+ * All operations take constant time: incrementing or decrementing by a
+ *   large <code>delta</code> costs no more than by 1.
+ * Use <code>LongModularCounter</code> or <code>BigModularCounter</code>
+ *   for moduli that do not fit in an <code>int</code>.
 */
-public class ModularCounter { 
+public class ModularCounter implements Counter { 
 
 
 	/** 
@@ -110,6 +119,28 @@ public class ModularCounter {
   
   
   
+	/** 
+	 * Returns the value of this <code>ModularCounter</code> as a
+	 *   <code>BigInteger</code>.
+	 *
+	 * @return the value of this <code>ModularCounter</code>
+	*/
+  public BigInteger bigValue()
+  {return BigInteger.valueOf(value);}
+  
+  
+  
+	/** 
+	 * Returns the modulus of this <code>ModularCounter</code> as a
+	 *   <code>BigInteger</code>.
+	 *
+	 * @return the modulus of this <code>ModularCounter</code>
+	*/
+  public BigInteger bigModulus()
+  {return BigInteger.valueOf(modulus);}
+  
+  
+  
 	/** 
 	 * Returns whether or not this <code>ModularCounter</b> is equal to
 	 *   <code>other</code>.
@@ -134,6 +165,32 @@ public class ModularCounter {
   
   
   
+	/** 
+	 * Returns a hash code for this <code>ModularCounter</code>, consistent
+	 *   with <code>equals</code>.
+	 * Because a counter's value changes, do not change a counter while it
+	 *   is a key in a hash-based collection (use <code>toValue</code>'s
+	 *   immutable <code>ModularValue</code> as the key instead).
+	 *
+	 * @return a hash code for this <code>ModularCounter</code>
+	*/
+  public int hashCode()
+  {return 31*value + modulus;}
+  
+  
+  
+	/** 
+	 * Returns the immutable <code>ModularValue</code> with the same value
+	 *   and modulus as this <code>ModularCounter</code> (a shared instance,
+	 *   for small moduli).
+	 *
+	 * @return the <code>ModularValue</code> equal to this counter's state
+	*/
+  public ModularValue toValue()
+  {return ModularValue.valueOf(value,modulus);}
+  
+  
+  
 	/** 
 	 * Returns whether or not this <code>ModularCounter</b>'s value is
 	 *   equal to zero (independent of the modulus).
@@ -206,11 +263,24 @@ public class ModularCounter {
 	*/
   public void inc (int delta)
     throws IllegalArgumentException
+  {inc((long)delta);}
+  
+  
+  
+	/** 
+	 * Increment this <code>ModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1).
+	 *
+	 * @param  delta specifies the amount to increment by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</b> is &lt 0
+	*/
+  public void inc (long delta)
+    throws IllegalArgumentException
   {
     if (delta < 0)
       throw new IllegalArgumentException("ModularCounter: inc - delta("+delta+") non-positive");
-    for (int i=1; i <= delta; i++)
-      inc();
+    advance(delta % modulus);
   }
   
   
@@ -239,11 +309,24 @@ public class ModularCounter {
 	*/
   public void dec (int delta)
     throws IllegalArgumentException
+  {dec((long)delta);}
+  
+  
+  
+	/** 
+	 * Decrement this <code>ModularCounter</code> by <code>delta</code>
+	 *  (with rollover to modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to decrement by
+	 *
+	 * @throws IllegalArgumentException if <code>delta</b> is &lt 0
+	*/
+  public void dec (long delta)
+    throws IllegalArgumentException
   {
     if (delta < 0)
-      throw new IllegalArgumentException("ModularCounter: inc - delta("+delta+") non-positive");
-    for (int i=1; i <= delta; i++)
-      dec();
+      throw new IllegalArgumentException("ModularCounter: dec - delta("+delta+") non-positive");
+    advance(Math.floorMod(-(delta % modulus), (long)modulus));
   }
   
   
@@ -255,14 +338,30 @@ public class ModularCounter {
 	 * @param  delta specifies the amount to increment/decrement by
 	*/
   public void update (int delta)
-  {
-    if (delta >= 0)
-      for (int i=1; i <= delta; i++)
-        inc();
-    else
-      for (int i=1; i <= -delta; i++)
-        dec();
-  }
+  {update((long)delta);}
+  
+  
+  
+	/** 
+	 * IncrementDecrement this <code>ModularCounter</code> by <code>delta</code>
+	 *  (with rollover to 0 beyond modulus-1/modulus-1 beyond 0).
+	 *
+	 * @param  delta specifies the amount to increment/decrement by
+	*/
+  public void update (long delta)
+  {advance(Math.floorMod(delta, (long)modulus));}
+  
+  
+  
+	/** 
+	 * Advance this <code>ModularCounter</code> by <code>steps</code>,
+	 *   which must already be reduced to the range <code>[0,modulus-1]</code>.
+	 * The sum is computed as a <code>long</code>, so it cannot overflow.
+	 *
+	 * @param  steps specifies the (reduced) amount to increment by
+	*/
+  private void advance (long steps)
+  {value = (int)((value + steps) % modulus);}
   
   
   
@@ -289,7 +388,7 @@ public class ModularCounter {
         int value   = Prompt.forInt("  Enter value  ");
         int modulus = Prompt.forInt("  Enter modulus");
         return new ModularCounter(value,modulus);
-      }catch (Exception e)
+      }catch (IllegalArgumentException e)   //End of input (UncheckedIOException) is not caught
         {System.out.println("Illegal ModularCounter entered; please try again");}
   }
   
@@ -0,0 +1,268 @@
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+//
+// Class          : ModularValue
+//
+// Maintainer     : Author
+//
+//
+// Description:
+//
+//   ModularValue objects are immutable values in some modulus: arithmetic
+// on one returns another ModularValue (instead of changing it, like a
+// ModularCounter does). They are value-based: compare them with equals,
+// not ==, and they can be used as keys in hash-based collections.
+//
+//   For small moduli (up to CACHED_MODULI) every possible value is shared:
+// the first time such a modulus is used, a table of all its values is
+// built, and from then on valueOf and all arithmetic return instances
+// from that table, allocating nothing.
+//
+//
+// Known Bugs (if any): None
+//
+// Future Plans       : none
+//
+// Program History:
+//  10/16/26: Operational
+//  10/16/26: minus(long) no longer overflows for moduli near Integer.MAX_VALUE
+//
+//
+//////////////////////////////////////////////////////////////////////////////
+//////////////////////////////////////////////////////////////////////////////
+
+
+package com.ivanaranda;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;  //For the shared tables
+
+/**
+ * Objects constructed from the ModularValue class represent immutable
+ *   integral (non-negative) values under a modulus: they always lie in
+ *   the range <code>[0,modulus-1]</code>.
+ * Adding to a value beyond modulus-1 wraps around to zero; subtracting
+ *   from a value beyond 0 wraps around to <code>modulus-1</code>.
+ * Each <code>ModularValue</code> obeys the following class invariants
+ *   <ul>
+ *     <li>The modulus must be &gt; 0
+ *     <li>The value must be in the range <code>[0,modulus-1]</code>
+ *   </ul>
+ * <p>
+ * Instances are obtained from <code>valueOf</code> (there is no public
+ *   constructor); for moduli up to <code>CACHED_MODULI</code> they are
+ *   shared, canonical instances.
+*/
+public final class ModularValue implements Comparable<ModularValue> {
+
+
+	/**
+	 * Returns the <code>ModularValue</code> with the specified value and
+	 *   modulus (a shared instance, if the modulus is at most
+	 *   <code>CACHED_MODULI</code>).
+	 *
+	 * @param  value specifies the value of the modular number
+	 * @param  modulus specifies the modulus of the modular number
+	 *
+	 * @return the <code>ModularValue</code> with the specified value and
+	 *   modulus
+	 *
+	 * @throws IllegalArgumentException if <code>modulus</b> is &lt= 0 or
+	 *           <code>value</code> is outside the appropriate range
+	*/
+  public static ModularValue valueOf (int value, int modulus)
+    throws IllegalArgumentException
+  {
+    if (modulus < 1)
+      throw new IllegalArgumentException("ModularValue - modulus("+modulus+") non-positive");
+    if (value < 0 || value >= modulus)
+      throw new IllegalArgumentException("ModularValue - value("+value+") not in range [0,"+(modulus-1)+"]");
+
+    return make(value,modulus);
+  }
+
+
+
+	/**
+	 * Returns the value of this <code>ModularValue</code>.
+	 *
+	 * @return the value of this <code>ModularValue</code>
+	*/
+  public int getValue()
+  {return value;}
+
+
+
+	/**
+	 * Returns the modulus of this <code>ModularValue</code>.
+	 *
+	 * @return the modulus of this <code>ModularValue</code>
+	*/
+  public int getModulus()
+  {return modulus;}
+
+
+
+	/**
+	 * Returns the <code>ModularValue</code> <code>delta</code> more than
+	 *   this one (wrapping around; <code>delta</code> may be negative).
+	 *
+	 * @param  delta specifies the amount to add
+	 *
+	 * @return the <code>ModularValue</code> <code>delta</code> more than
+	 *   this one
+	*/
+  public ModularValue plus (long delta)
+  {return make((int)((value + Math.floorMod(delta,(long)modulus)) % modulus), modulus);}
+
+
+
+	/**
+	 * Returns the <code>ModularValue</code> <code>delta</code> less than
+	 *   this one (wrapping around; <code>delta</code> may be negative).
+	 *
+	 * @param  delta specifies the amount to subtract
+	 *
+	 * @return the <code>ModularValue</code> <code>delta</code> less than
+	 *   this one
+	*/
+  public ModularValue minus (long delta)
+  {return make((int)Math.floorMod((long)value - Math.floorMod(delta,(long)modulus), (long)modulus), modulus);}
+
+
+
+	/**
+	 * Returns a new <code>ModularCounter</code> storing the same value and
+	 *   modulus as this <code>ModularValue</code> (which can then be changed).
+	 *
+	 * @return a new <code>ModularCounter</code> equal to this value
+	*/
+  public ModularCounter toCounter()
+  {return new ModularCounter(value,modulus);}
+
+
+
+	/**
+	 * Returns whether or not this <code>ModularValue</b> is equal to
+	 *   <code>other</code>.
+	 *
+	 * @param  other specifies the other <code>ModularValue</b> in the
+	 *           equality check
+	 *
+	 * @return whether or not this <code>ModularValue</b> is equal to
+	 *   <code>other</code>
+	*/
+  public boolean equals(Object other)
+  {
+    if ( !(other instanceof ModularValue) )
+       return false;
+    if (this == other)
+      return true;
+
+    ModularValue otherMV = (ModularValue)other;
+
+    return value == otherMV.value && modulus == otherMV.modulus;
+  }
+
+
+
+	/**
+	 * Returns a hash code for this <code>ModularValue</code>, consistent
+	 *   with <code>equals</code>.
+	 *
+	 * @return a hash code for this <code>ModularValue</code>
+	*/
+  public int hashCode()
+  {return 31*value + modulus;}
+
+
+
+	/**
+	 * Returns whether or not this <code>ModularValue</b>'s value is
+	 *   equal to zero (independent of the modulus).
+	 *
+	 * @return whether or not this <code>ModularValue</b>'s value is
+	 *   equal to zero (independent of the modulus)
+	*/
+  public boolean isZero()
+  {return value == 0;}
+
+
+
+	/**
+	 * Compares this <code>ModularValue</code> with <code>mv</code> for
+	 *   order (by value, independent of the modulus).
+	 *
+	 * @return a negative integer, zero, or a positive integer as this
+	 *   value is less than, equal to, or greater than <code>mv</code>'s
+	*/
+  public int compareTo(ModularValue mv)
+  {return Integer.compare(value,mv.value);}
+
+
+
+	/**
+	 * Returns a <code>String<code> representation of the state of this
+	 *  <code>ModularValue</code>: value (mod modulus).
+	 * E.g.: 6 (mod 10)
+	 *
+	 * @return a <code>String<code> representation of the state of this
+	 *  <code>ModularValue</code>: value (mod modulus)
+	*/
+  public String toString ()
+  {return value + "(mod " + modulus + ")";}
+
+
+
+  //Only valueOf and make construct ModularValues
+  private ModularValue (int value, int modulus)
+  {
+    this.value   = value;
+    this.modulus = modulus;
+  }
+
+
+  //Return the ModularValue for a legal value and modulus: from the
+  //  modulus' shared table (built the first time it is needed) if there
+  //  is one; otherwise a new one
+  private static ModularValue make (int value, int modulus)
+  {
+    if (modulus > CACHED_MODULI)
+      return new ModularValue(value,modulus);
+
+    ModularValue[] table = TABLES.get(modulus);
+    if (table == null) {
+      table = new ModularValue[modulus];
+      for (int i=0; i<modulus; i++)
+        table[i] = new ModularValue(i,modulus);
+      if (!TABLES.compareAndSet(modulus,null,table))
+        table = TABLES.get(modulus);  //Another thread built it first: use its
+    }
+    return table[value];
+  }
+
+
+
+	/**
+	 * The largest modulus whose values are all shared instances.
+	*/
+  public static final int CACHED_MODULI = 256;
+
+
+  //TABLES.get(m) stores all the values for modulus m (or null until needed)
+  private static final AtomicReferenceArray<ModularValue[]> TABLES =
+    new AtomicReferenceArray<ModularValue[]>(CACHED_MODULI+1);
+
+
+	/**
+	 * Stores the value of the <code>ModularValue</code>.
+	 * It must always lie in the range <code>[0,modulus-1]</code>.
+	*/
+  private final int value;
+
+
+	/**
+	 * Stores the moduls of the <code>ModularValue</code>.
+	 * It must always be positive.
+	*/
+  private final int modulus;
+}
@@ -20,6 +20,15 @@
 // information. All these methods reprompt the user if the response to the
 // prompt is considered "illegal" (e.g., not the right type, not in range).
 //
+//   Input comes from System.in unless Prompt is given another source (an
+// InputStream, a channel, or an array of bytes); it is read in large
+// blocks by a ByteTokenizer, which also parses numbers (without throwing
+// exceptions for bad ones). In quiet mode the prompts are not printed
+// (and complaints about bad responses go to System.err), so a program
+// can read millions of values per second from a pipe or file. When the
+// input ends or cannot be read, the methods throw an UncheckedIOException
+// (they used to exit the program).
+//
 //   This class now includes a main driver for testing all its methods.
 //
 // Future Plans   : Low/High and Default values for Integer
@@ -27,6 +36,7 @@
 // Program History:
 //   8/20/01: R. Pattis - Operational for 15-100
 //  12/24/01: R. Pattis - Added low/high for doubles, defaults for all
+//  10/16/26: Pluggable input (ByteTokenizer); quiet mode; no System.exit
 //
 //
 //////////////////////////////////////////////////////////////////////////////
@@ -35,8 +45,9 @@
 
 package com.ivanaranda;
 
-import java.io.*;							//For BufferedReader, InputStreamReader, IOException
+import java.io.*;							//For InputStream, IOException, UncheckedIOException
 import java.math.BigInteger;  //For BigInteger constructor
+import java.nio.channels.ReadableByteChannel;
 
 
 
@@ -58,7 +69,13 @@ import java.math.BigInteger;  //For BigInteger constructor
  *   enter only a vowel character, with <code>a</code> as the default if
  *   the user immediately presses return.
  * <p>
- * These methods do not throw exceptions.
+ * Responses are read from <code>System.in</code>, unless another source
+ *   is specified by <code>setInput</code>; <code>setQuiet</code> turns
+ *   off the display of prompts.
+ * <p>
+ * These methods do not throw exceptions for illegal responses; they
+ *   throw an <code>UncheckedIOException</code> only if the input ends
+ *   (caused by an <code>EOFException</code>) or cannot be read.
  * 
  * @author Richard E. Pattis (Computer Science Department, Carnegie Mellon)
 */
@@ -75,15 +92,13 @@ public class Prompt {
 	*/
   public static int forInt (String message)
   {
-    for(;;)
-      try {
-        System.out.print(message+": ");
-        return Integer.parseInt(keyboard.readLine());
-      }
-      catch (NumberFormatException e)
-        {System.out.println("NumberFormatException: Please enter a valid integer ("+e.getMessage()+" was not valid)");}
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,": ");
+      long answer = input.intValue();     //Like Integer.parseInt: no spaces
+      if (answer != ByteTokenizer.NOT_A_NUMBER)
+        return (int)answer;
+      report("Please enter a valid integer (\""+input.token()+"\" was not valid)");
+    }
   }
 
   
@@ -102,16 +117,12 @@ public class Prompt {
 	*/
   public static int forInt (String message, int low, int high)
   {
-    for(;;)
-      try {
-        int answer = Prompt.forInt(message+"["+low+","+high+"]");
-        if (low <= answer && answer <= high)
-          return answer;
-        else
-          throw new Exception("Please enter a value in the specified range");
-      }
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      int answer = Prompt.forInt(message+"["+low+","+high+"]");
+      if (low <= answer && answer <= high)
+        return answer;
+      report("Please enter a value in the specified range");
+    }
   }
 
   
@@ -128,19 +139,15 @@ public class Prompt {
 	*/
   public static int forInt (String message, int defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"("+defaultValue+"): ");
-        String answer = keyboard.readLine();
-        if (answer.equals(""))
-          return defaultValue;
-        else
-          return Integer.parseInt(answer);
-      }
-      catch (NumberFormatException e)
-        {System.out.println("NumberFormatException: Please enter a valid integer ("+e.getMessage()+" was not valid)");}
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,"("+defaultValue+"): ");
+      if (input.length() == 0)
+        return defaultValue;
+      long answer = input.intValue();
+      if (answer != ByteTokenizer.NOT_A_NUMBER)
+        return (int)answer;
+      report("Please enter a valid integer (\""+input.token()+"\" was not valid)");
+    }
   }
 
   
@@ -161,16 +168,12 @@ public class Prompt {
 	*/
   public static int forInt (String message, int low, int high, int defaultValue)
   {
-    for(;;)
-      try {
-        int answer = Prompt.forInt(message+"["+low+","+high+"]",defaultValue);
-        if (low <= answer && answer <= high)
-          return answer;
-        else
-          throw new Exception("Please enter a value in the specified range");
-      }
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      int answer = Prompt.forInt(message+"["+low+","+high+"]",defaultValue);
+      if (low <= answer && answer <= high)
+        return answer;
+      report("Please enter a value in the specified range");
+    }
   }
 
   
@@ -184,15 +187,14 @@ public class Prompt {
 	*/
   public static double forDouble (String message)
   {
-    for(;;)
-      try {
-        System.out.print(message+": ");
-        return Double.parseDouble(keyboard.readLine());
-      }
-      catch (NumberFormatException e)
-        {System.out.println("NumberFormatException: Please enter a valid double ("+e.getMessage()+" was not valid)");}
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,": ");
+      input.trim();                       //Like Double.parseDouble
+      double answer = input.doubleValue();
+      if (!Double.isNaN(answer) || input.tokenEquals("NaN"))
+        return answer;
+      report("Please enter a valid double (\""+input.token()+"\" was not valid)");
+    }
   }
 
   
@@ -211,16 +213,12 @@ public class Prompt {
 	*/
   public static double forDouble (String message, double low, double high)
   {
-    for(;;)
-      try {
-        double answer = Prompt.forDouble(message+"["+low+","+high+"]");
-        if (low <= answer && answer <= high)
-          return answer;
-        else
-          throw new Exception("Please enter a value in the specified range");
-      }
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      double answer = Prompt.forDouble(message+"["+low+","+high+"]");
+      if (low <= answer && answer <= high)
+        return answer;
+      report("Please enter a value in the specified range");
+    }
   }
 
   
@@ -237,19 +235,16 @@ public class Prompt {
 	*/
   public static double forDouble (String message, double defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"("+defaultValue+"): ");
-        String answer = keyboard.readLine();
-        if (answer.equals(""))
-          return defaultValue;
-        else
-          return Double.parseDouble(answer);
-      }
-      catch (NumberFormatException e)
-        {System.out.println("NumberFormatException: Please enter a valid double ("+e.getMessage()+" was not valid)");}
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,"("+defaultValue+"): ");
+      if (input.length() == 0)
+        return defaultValue;
+      input.trim();                       //Like Double.parseDouble
+      double answer = input.doubleValue();
+      if (!Double.isNaN(answer) || input.tokenEquals("NaN"))
+        return answer;
+      report("Please enter a valid double (\""+input.token()+"\" was not valid)");
+    }
   }
 
   
@@ -270,16 +265,12 @@ public class Prompt {
 	*/
   public static double forDouble (String message, double low, double high, double defaultValue)
   {
-    for(;;)
-      try {
-        double answer = Prompt.forDouble(message+"["+low+","+high+"]",defaultValue);
-        if (low <= answer && answer <= high)
-          return answer;
-        else
-          throw new Exception("Please enter a value in the specified range");
-      }
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      double answer = Prompt.forDouble(message+"["+low+","+high+"]",defaultValue);
+      if (low <= answer && answer <= high)
+        return answer;
+      report("Please enter a value in the specified range");
+    }
   }
 
   
@@ -293,13 +284,8 @@ public class Prompt {
 	*/
   public static String forString (String message)
   {
-    for(;;)
-      try {
-        System.out.print(message+": ");
-        return keyboard.readLine();
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    readLine(message,": ");
+    return input.token();
   }
 
 
@@ -316,14 +302,8 @@ public class Prompt {
 	*/
   public static String forString (String message, String defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"("+defaultValue+"): ");
-        String answer = keyboard.readLine();
-        return (answer.equals("") ? defaultValue : answer);
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    readLine(message,"("+defaultValue+"): ");
+    return (input.length() == 0 ? defaultValue : input.token());
   }
 
 
@@ -340,19 +320,14 @@ public class Prompt {
 	*/
   public static String forString (String message, String[] legal)
   {
-    for(;;)
-      try {
-        System.out.print(message+"(");
-        for (int i=0; i<legal.length; i++)
-          System.out.print(legal[i]+(i==legal.length-1 ? "): " : " "));
-        String answer = keyboard.readLine();
-        for (int i=0; i<legal.length; i++)
-          if (answer.equals(legal[i]))
-            return answer;
-        System.out.println("Please enter one of the legal Strings");
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,"("+String.join(" ",legal)+"): ");
+      String answer = input.token();
+      for (int i=0; i<legal.length; i++)
+        if (answer.equals(legal[i]))
+          return answer;
+      report("Please enter one of the legal Strings");
+    }
   }
 
 
@@ -372,21 +347,16 @@ public class Prompt {
 	*/
   public static String forString (String message, String[] legal, String defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"(");
-        for (int i=0; i<legal.length; i++)
-          System.out.print(legal[i]+(i==legal.length-1 ? "): " : " "));
-        String answer = keyboard.readLine();
-        if (answer.length() == 0)
-          return defaultValue;
-        for (int i=0; i<legal.length; i++)
-          if (answer.equals(legal[i]))
-            return answer;
-        System.out.println("Please enter one of the legal Strings");
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,"("+String.join(" ",legal)+"): ");
+      if (input.length() == 0)
+        return defaultValue;
+      String answer = input.token();
+      for (int i=0; i<legal.length; i++)
+        if (answer.equals(legal[i]))
+          return answer;
+      report("Please enter one of the legal Strings");
+    }
   }
 
 
@@ -400,18 +370,14 @@ public class Prompt {
 	*/
   public static boolean forBoolean (String message)
   {
-    for(;;)
-      try {
-        System.out.print(message+": ");
-        String temp = keyboard.readLine();
-        if (temp.equals("true"))
-          return true;
-        if (temp.equals("false"))
-          return false;
-        System.out.println("Please enter true or false");
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,": ");
+      if (input.tokenEquals("true"))
+        return true;
+      if (input.tokenEquals("false"))
+        return false;
+      report("Please enter true or false");
+    }
   }
   
   
@@ -428,20 +394,16 @@ public class Prompt {
 	*/
   public static boolean forBoolean (String message, boolean defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"("+defaultValue+"): ");
-        String temp = keyboard.readLine();
-        if (temp.equals(""))
-          return defaultValue;
-        if (temp.equals("true"))
-          return true;
-        if (temp.equals("false"))
-          return false;
-        System.out.println("Please enter true or false");
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+    for(;;) {
+      readLine(message,"("+defaultValue+"): ");
+      if (input.length() == 0)
+        return defaultValue;
+      if (input.tokenEquals("true"))
+        return true;
+      if (input.tokenEquals("false"))
+        return false;
+      report("Please enter true or false");
+    }
   }
   
   
@@ -455,19 +417,12 @@ public class Prompt {
 	*/
   public static char forChar (String message)
   {
-    for(;;)
-      try {
-        System.out.print(message+": ");
-        String answer = keyboard.readLine();
-        if (answer.length()==0)
-          throw new Exception("Please enter one character");
-        else
-          return answer.charAt(0);
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      readLine(message,": ");
+      if (input.length() != 0)
+        return input.token().charAt(0);
+      report("Please enter one character");
+    }
   }
 
 
@@ -484,19 +439,8 @@ public class Prompt {
 	*/
   public static char forChar (String message, char defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"("+defaultValue+"): ");
-        String answer = keyboard.readLine();
-        if (answer.length()==0)
-          return defaultValue;
-        else
-          return answer.charAt(0);
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    readLine(message,"("+defaultValue+"): ");
+    return (input.length() == 0 ? defaultValue : input.token().charAt(0));
   }
 
 
@@ -513,19 +457,13 @@ public class Prompt {
 	*/
   public static char forChar (String message, String legal)
   {
-    for(;;)
-      try {
-        System.out.print(message+"["+legal+"]: ");
-        String answer = keyboard.readLine();
-        if (answer.length()==0 || legal.indexOf(answer.charAt(0))==-1 )
-          throw new Exception("Please enter one legal character");
-        else
-          return answer.charAt(0);
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      readLine(message,"["+legal+"]: ");
+      char answer = (input.length() == 0 ? 0 : input.token().charAt(0));
+      if (input.length() != 0 && legal.indexOf(answer) != -1)
+        return answer;
+      report("Please enter one legal character");
+    }
   }
 
 
@@ -545,21 +483,15 @@ public class Prompt {
 	*/
   public static char forChar (String message, String legal, char defaultValue)
   {
-    for(;;)
-      try {
-        System.out.print(message+"["+legal+"]("+defaultValue+"): ");
-        String answer = keyboard.readLine();
-        if (answer.length()==0 && legal.indexOf(defaultValue)!=-1)
-          return defaultValue;
-        if (answer.length()!=0 && legal.indexOf(answer.charAt(0))!=-1)
-          return answer.charAt(0);
-        else
-          throw new Exception("Please enter one legal character");
-      }
-      catch (IOException           e)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
-      catch (Exception e)
-        {System.out.println(e.getMessage());}
+    for(;;) {
+      readLine(message,"["+legal+"]("+defaultValue+"): ");
+      if (input.length() == 0 && legal.indexOf(defaultValue) != -1)
+        return defaultValue;
+      char answer = (input.length() == 0 ? 0 : input.token().charAt(0));
+      if (input.length() != 0 && legal.indexOf(answer) != -1)
+        return answer;
+      report("Please enter one legal character");
+    }
   }
 
 
@@ -572,22 +504,118 @@ public class Prompt {
 	*/
   public static BigInteger forBigInteger (String message)
   {
-    for(;;)
+    for(;;) {
+      readLine(message,": ");
       try {
-        System.out.print(message+": ");
-        return new BigInteger(keyboard.readLine());
+        return new BigInteger(input.token());
       }
       catch (NumberFormatException E)
-        {System.out.println("NumberFormatException: Please enter a valid integer ("+E.getMessage()+" was not valid)");}
-      catch (IOException           E)
-        {System.out.println("IOException: Terminating Program"); System.exit(0);}
+        {report("Please enter a valid integer (\""+input.token()+"\" was not valid)");}
+    }
+  }
+
+
+
+	/** 
+	 * Makes all the methods read their responses from <code>in</code>.
+	 * 
+	 * @param  in specifies the source of the responses
+	*/
+  public static void setInput (InputStream in)
+  {input = new ByteTokenizer(in);}
+
+
+
+	/** 
+	 * Makes all the methods read their responses from <code>channel</code>
+	 *   (e.g., a <code>FileChannel</code> or a pipe).
+	 * 
+	 * @param  channel specifies the source of the responses
+	*/
+  public static void setInput (ReadableByteChannel channel)
+  {input = new ByteTokenizer(channel);}
+
+
+
+	/** 
+	 * Makes all the methods read their responses from <code>bytes</code>
+	 *   (which are not copied), one response per line.
+	 * 
+	 * @param  bytes specifies the responses
+	*/
+  public static void setInput (byte[] bytes)
+  {input = new ByteTokenizer(bytes,0,bytes.length);}
+
+
+
+	/** 
+	 * Turns quiet mode on or off: in quiet mode the methods do not display
+	 *   their prompts, and display complaints about illegal responses on
+	 *   <code>System.err</code> (instead of <code>System.out</code>).
+	 * 
+	 * @param  quiet specifies whether quiet mode is on
+	*/
+  public static void setQuiet (boolean quiet)
+  {Prompt.quiet = quiet;}
+
+
+
+	/** 
+	 * Returns whether quiet mode is on.
+	 * 
+	 * @return whether quiet mode is on
+	*/
+  public static boolean isQuiet ()
+  {return quiet;}
+
+
+
+	/** 
+	 * Returns whether the input has another response to read (waiting
+	 *   for more input, if necessary).
+	 * 
+	 * @return whether the input has another response to read
+	 *
+	 * @throws UncheckedIOException if the input cannot be read
+	*/
+  public static boolean hasMoreInput ()
+  {
+    try {
+      return input.hasMore();
+    }
+    catch (IOException e)
+      {throw new UncheckedIOException(e);}
   }
 
 
 
-  //declare and initialize connection to keyboard shared by all methods
+  //Display message and suffix (unless quiet), then read the next line of
+  //  input (as input's current token)
+  private static void readLine (String message, String suffix)
+  {
+    if (!quiet) {
+      System.out.print(message);
+      System.out.print(suffix);
+    }
+    try {
+      if (!input.nextLine())
+        throw new UncheckedIOException(new EOFException("Prompt - end of input"));
+    }
+    catch (IOException e)
+      {throw new UncheckedIOException(e);}
+  }
+
+
+  //Complain about an illegal response
+  private static void report (String message)
+  {(quiet ? System.err : System.out).println(message);}
+
+
+
+  //declare and initialize the input shared by all methods
   
-  private static BufferedReader keyboard =  new BufferedReader (new InputStreamReader(System.in));
+  private static ByteTokenizer input = new ByteTokenizer(System.in);
+  private static boolean       quiet;
   
  
   